@@ -0,0 +1,68 @@
+package dev.kocak.yusuf.JWTHelper.impl;
+
+import dev.kocak.yusuf.JWTHelper.model.IHeader;
+import dev.kocak.yusuf.JWTHelper.model.IJWTPartsParser;
+import dev.kocak.yusuf.JWTHelper.model.IPayload;
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+
+// JWTPartsReader against the Jackson backed JWTParser on the same header and payload bytes
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PartsParserBenchmark {
+
+    private static final byte[] HEADER = ("{\"alg\":\"RS256\",\"typ\":\"JWT\",\"kid\":\"2024-05-key-1\"}")
+            .getBytes(StandardCharsets.UTF_8);
+    private static final byte[] PAYLOAD = ("{\"iss\":\"https://issuer.example.com/\",\"sub\":\"auth0|5f1c2b3a4d\","
+            + "\"aud\":[\"https://api.example.com\",\"https://issuer.example.com/userinfo\"],"
+            + "\"exp\":1893456000,\"nbf\":1700000000,\"iat\":1700000000,\"jti\":\"c3f1e9a2-7b4d-4e8a\","
+            + "\"scope\":\"openid profile email read:orders\",\"name\":\"J\u00fcrgen M\u00fcller\","
+            + "\"roles\":[\"admin\",\"billing\"],\"email_verified\":true,"
+            + "\"address\":{\"country\":\"DE\",\"locality\":\"Berlin\"}}").getBytes(StandardCharsets.UTF_8);
+    // without the nested object, which the reader hands to Jackson
+    private static final byte[] FLAT_PAYLOAD = ("{\"iss\":\"https://issuer.example.com/\",\"sub\":\"auth0|5f1c2b3a4d\","
+            + "\"aud\":[\"https://api.example.com\",\"https://issuer.example.com/userinfo\"],"
+            + "\"exp\":1893456000,\"nbf\":1700000000,\"iat\":1700000000,\"jti\":\"c3f1e9a2-7b4d-4e8a\","
+            + "\"scope\":\"openid profile email read:orders\",\"roles\":[\"admin\",\"billing\"]}")
+            .getBytes(StandardCharsets.UTF_8);
+
+    private final IJWTPartsParser jackson = new JWTParser();
+    private final IJWTPartsParser reader = new JWTPartsReader();
+
+    @Benchmark
+    public IHeader jacksonHeader() {
+        return jackson.parseHeader(HEADER, 0, HEADER.length);
+    }
+
+    @Benchmark
+    public IHeader readerHeader() {
+        return reader.parseHeader(HEADER, 0, HEADER.length);
+    }
+
+    @Benchmark
+    public IPayload jacksonPayload() {
+        return jackson.parsePayload(PAYLOAD, 0, PAYLOAD.length);
+    }
+
+    @Benchmark
+    public IPayload readerPayload() {
+        return reader.parsePayload(PAYLOAD, 0, PAYLOAD.length);
+    }
+
+    @Benchmark
+    public IPayload jacksonFlatPayload() {
+        return jackson.parsePayload(FLAT_PAYLOAD, 0, FLAT_PAYLOAD.length);
+    }
+
+    @Benchmark
+    public IPayload readerFlatPayload() {
+        return reader.parsePayload(FLAT_PAYLOAD, 0, FLAT_PAYLOAD.length);
+    }
+}
@@ -0,0 +1,100 @@
+package dev.kocak.yusuf.JWTHelper;
+
+import dev.kocak.yusuf.JWTHelper.exceptions.JWTDecodeException;
+import dev.kocak.yusuf.JWTHelper.model.IJWTVerifier;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+
+// tokens sharing a header go to the same worker one after the other, it keeps its key set up for them
+public final class BatchVerification {
+
+    private static final int TASKS_PER_WORKER = 4;
+
+    private BatchVerification() {
+    }
+
+    public static List<VerificationResult> verifyAll(IJWTVerifier verifier, List<? extends CharSequence> tokens,
+                                                     ForkJoinPool pool) throws IllegalArgumentException {
+        if (verifier == null) {
+            throw new IllegalArgumentException("The Verifier cannot be null.");
+        }
+        if (tokens == null) {
+            throw new IllegalArgumentException("The Tokens cannot be null.");
+        }
+        if (pool == null) {
+            throw new IllegalArgumentException("The Pool cannot be null.");
+        }
+        CharSequence[] batch = tokens.toArray(new CharSequence[0]);
+        int size = batch.length;
+        long[] order = new long[size];
+        for (int i = 0; i < size; i++) {
+            // the header carries the kid, equal headers end up next to each other once sorted
+            order[i] = ((long) headerHash(batch[i]) << 32) | i;
+        }
+        Arrays.sort(order);
+        VerificationResult[] results = new VerificationResult[size];
+        int threshold = Math.max(1, size / (pool.getParallelism() * TASKS_PER_WORKER));
+        pool.invoke(new Task(verifier, batch, results, order, 0, size, threshold));
+        return Arrays.asList(results);
+    }
+
+    private static int headerHash(CharSequence token) {
+        int hash = 1;
+        if (token != null) {
+            for (int i = 0; i < token.length() && token.charAt(i) != '.'; i++) {
+                hash = 31 * hash + token.charAt(i);
+            }
+        }
+        return hash;
+    }
+
+    private static final class Task extends RecursiveAction {
+        private final IJWTVerifier verifier;
+        private final CharSequence[] tokens;
+        private final VerificationResult[] results;
+        private final long[] order;
+        private final int from;
+        private final int to;
+        private final int threshold;
+
+        private Task(IJWTVerifier verifier, CharSequence[] tokens, VerificationResult[] results, long[] order,
+                     int from, int to, int threshold) {
+            this.verifier = verifier;
+            this.tokens = tokens;
+            this.results = results;
+            this.order = order;
+            this.from = from;
+            this.to = to;
+            this.threshold = threshold;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > threshold) {
+                int middle = (from + to) >>> 1;
+                invokeAll(new Task(verifier, tokens, results, order, from, middle, threshold),
+                        new Task(verifier, tokens, results, order, middle, to, threshold));
+                return;
+            }
+            for (int i = from; i < to; i++) {
+                int index = (int) order[i];
+                CharSequence token = tokens[index];
+                VerificationResult result = new VerificationResult();
+                if (token == null) {
+                    result.reject(new JWTDecodeException("The Token cannot be null."));
+                } else {
+                    try {
+                        verifier.tryVerify(token, result);
+                    } catch (RuntimeException e) {
+                        result.fail(e);
+                    }
+                }
+                results[index] = result;
+            }
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package dev.kocak.yusuf.JWTHelper;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+
+// the order a plan runs its steps in, rearranged now and then so the ones turning down the most tokens for
+// their cost come first. Readers only ever see a complete array, a new order replaces the old one as a whole
+final class CheckOrder {
+
+    // one token in that many runs every independent step, whatever the outcome of the ones before
+    private static final int SAMPLE_RATE = 64;
+    private static final int REORDER_INTERVAL = 256;
+
+    private final int[] costs;
+    private final boolean[] independent;
+    private final AtomicLongArray rejections;
+    private final AtomicLong samples = new AtomicLong();
+    private volatile int[] order;
+
+    CheckOrder(int[] steps, int[] costs, boolean[] independent) {
+        this.costs = costs;
+        this.independent = independent;
+        this.rejections = new AtomicLongArray(costs.length);
+        int[] initial = new int[steps.length];
+        int next = 0;
+        for (int step : steps) {
+            if (independent[step]) {
+                initial[next++] = step;
+            }
+        }
+        for (int step : steps) {
+            if (!independent[step]) {
+                initial[next++] = step;
+            }
+        }
+        this.order = initial;
+    }
+
+    int[] current() {
+        return order;
+    }
+
+    boolean sampleNext() {
+        return ThreadLocalRandom.current().nextInt(SAMPLE_RATE) == 0;
+    }
+
+    boolean isIndependent(int step) {
+        return independent[step];
+    }
+
+    void rejected(int step) {
+        rejections.incrementAndGet(step);
+    }
+
+    void sampled() {
+        if (samples.incrementAndGet() % REORDER_INTERVAL == 0) {
+            reorder();
+        }
+    }
+
+    // recent samples weigh the most, the counts are halved at every reorder
+    long rejections(int step) {
+        return rejections.get(step);
+    }
+
+    private void reorder() {
+        long[] counts = new long[costs.length];
+        for (int step = 0; step < counts.length; step++) {
+            counts[step] = rejections.get(step);
+            rejections.addAndGet(step, -(counts[step] / 2));
+        }
+        int[] next = order.clone();
+        // insertion sort, so steps that are just as good stay where they were and the order doesn't flap
+        for (int i = 1; i < next.length && independent[next[i]]; i++) {
+            int step = next[i];
+            int j = i - 1;
+            while (j >= 0 && counts[step] * costs[next[j]] > counts[next[j]] * costs[step]) {
+                next[j + 1] = next[j];
+                j--;
+            }
+            next[j + 1] = step;
+        }
+        order = next;
+    }
+}
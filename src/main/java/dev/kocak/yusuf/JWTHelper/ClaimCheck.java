@@ -0,0 +1,397 @@
+package dev.kocak.yusuf.JWTHelper;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import dev.kocak.yusuf.JWTHelper.exceptions.MissingClaimException;
+import dev.kocak.yusuf.JWTHelper.impl.ClaimNodes;
+import dev.kocak.yusuf.JWTHelper.model.ExpectedCheckHolder;
+import dev.kocak.yusuf.JWTHelper.model.IClaim;
+import dev.kocak.yusuf.JWTHelper.model.IDecodedJWT;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+import java.util.function.BiPredicate;
+
+
+// a check on a claim that has to be present, ClaimCheckPlan looks the claim up once for all checks on it
+abstract class ClaimCheck implements ExpectedCheckHolder {
+
+    private final String claimName;
+
+    ClaimCheck(String claimName) {
+        this.claimName = claimName;
+    }
+
+    @Override
+    public final String getClaimName() {
+        return claimName;
+    }
+
+    @Override
+    public final boolean verify(IClaim claim, IDecodedJWT decodedJWT) {
+        if (claim.isMissing()) {
+            throw new MissingClaimException(claimName);
+        }
+        return test(claim, decodedJWT);
+    }
+
+    abstract boolean test(IClaim claim, IDecodedJWT decodedJWT);
+
+    // false for user predicates, which shouldn't see a token before its signature was checked
+    boolean isCheap() {
+        return true;
+    }
+
+    // rough cost next to a plain comparison, for ordering the checks
+    int cost() {
+        return 1;
+    }
+
+    String failureMessage() {
+        return String.format("The Claim '%s' value doesn't match the required one.", claimName);
+    }
+
+
+    static final class Presence extends ClaimCheck {
+        Presence(String claimName) {
+            super(claimName);
+        }
+
+        @Override
+        boolean test(IClaim claim, IDecodedJWT decodedJWT) {
+            return true;
+        }
+    }
+
+
+    static final class Null extends ClaimCheck {
+        Null(String claimName) {
+            super(claimName);
+        }
+
+        @Override
+        boolean test(IClaim claim, IDecodedJWT decodedJWT) {
+            return claim.isNull();
+        }
+    }
+
+
+    static final class StringEquals extends ClaimCheck {
+        private final String value;
+
+        StringEquals(String claimName, String value) {
+            super(claimName);
+            this.value = value;
+        }
+
+        @Override
+        boolean test(IClaim claim, IDecodedJWT decodedJWT) {
+            return value == null ? claim.isNull() : value.equals(claim.asString());
+        }
+    }
+
+
+    static final class BooleanEquals extends ClaimCheck {
+        private final Boolean value;
+
+        BooleanEquals(String claimName, Boolean value) {
+            super(claimName);
+            this.value = value;
+        }
+
+        @Override
+        boolean test(IClaim claim, IDecodedJWT decodedJWT) {
+            return value == null ? claim.isNull() : value.equals(claim.asBoolean());
+        }
+    }
+
+
+    static final class IntegerEquals extends ClaimCheck {
+        private final Integer value;
+
+        IntegerEquals(String claimName, Integer value) {
+            super(claimName);
+            this.value = value;
+        }
+
+        @Override
+        boolean test(IClaim claim, IDecodedJWT decodedJWT) {
+            return value == null ? claim.isNull() : value.equals(claim.asInt());
+        }
+    }
+
+
+    static final class LongEquals extends ClaimCheck {
+        private final Long value;
+
+        LongEquals(String claimName, Long value) {
+            super(claimName);
+            this.value = value;
+        }
+
+        @Override
+        boolean test(IClaim claim, IDecodedJWT decodedJWT) {
+            return value == null ? claim.isNull() : value.equals(claim.asLong());
+        }
+    }
+
+
+    static final class DoubleEquals extends ClaimCheck {
+        private final Double value;
+
+        DoubleEquals(String claimName, Double value) {
+            super(claimName);
+            this.value = value;
+        }
+
+        @Override
+        boolean test(IClaim claim, IDecodedJWT decodedJWT) {
+            return value == null ? claim.isNull() : value.equals(claim.asDouble());
+        }
+    }
+
+
+    static final class InstantEquals extends ClaimCheck {
+        private final Instant value;
+
+        InstantEquals(String claimName, Instant value) {
+            super(claimName);
+            // date-time claims are serialized as epoch seconds, so they're compared with seconds granularity
+            this.value = value != null ? value.truncatedTo(ChronoUnit.SECONDS) : null;
+        }
+
+        @Override
+        boolean test(IClaim claim, IDecodedJWT decodedJWT) {
+            return value == null ? claim.isNull() : value.equals(claim.asInstant());
+        }
+    }
+
+
+    static final class Issuer extends ClaimCheck {
+        private final Set<String> issuers;
+
+        Issuer(List<String> issuers) {
+            super(RegisteredClaims.ISSUER);
+            this.issuers = issuers != null ? new HashSet<>(issuers) : null;
+        }
+
+        @Override
+        boolean test(IClaim claim, IDecodedJWT decodedJWT) {
+            return issuers == null ? claim.isNull() : issuers.contains(claim.asString());
+        }
+
+        @Override
+        String failureMessage() {
+            return "The Claim 'iss' value doesn't match the required issuer.";
+        }
+    }
+
+
+    static final class Audience extends ClaimCheck {
+        private final Map<String, Integer> audience;
+        private final boolean containsAll;
+
+        Audience(List<String> audience, boolean containsAll) {
+            super(RegisteredClaims.AUDIENCE);
+            this.audience = audience != null ? indexOf(audience) : null;
+            this.containsAll = containsAll;
+        }
+
+        @Override
+        boolean test(IClaim claim, IDecodedJWT decodedJWT) {
+            if (audience == null && claim.isNull()) {
+                return true;
+            }
+            List<String> actual = decodedJWT.getAudience();
+            if (actual == null || audience == null) {
+                return false;
+            }
+            if (!containsAll) {
+                for (String value : actual) {
+                    if (audience.containsKey(value)) {
+                        return true;
+                    }
+                }
+                return false;
+            }
+            int count = audience.size();
+            if (count <= Long.SIZE) {
+                long matched = 0;
+                for (String value : actual) {
+                    Integer index = audience.get(value);
+                    if (index != null) {
+                        matched |= 1L << index;
+                    }
+                }
+                return matched == allOf(count);
+            }
+            BitSet matched = new BitSet(count);
+            for (String value : actual) {
+                Integer index = audience.get(value);
+                if (index != null) {
+                    matched.set(index);
+                }
+            }
+            return matched.cardinality() == count;
+        }
+
+        @Override
+        String failureMessage() {
+            return "The Claim 'aud' value doesn't contain the required audience.";
+        }
+
+        @Override
+        int cost() {
+            return 2;
+        }
+
+        private static Map<String, Integer> indexOf(List<String> values) {
+            Map<String, Integer> index = new HashMap<>();
+            for (String value : values) {
+                index.putIfAbsent(value, index.size());
+            }
+            return index;
+        }
+    }
+
+
+    static final class ArrayContains extends ClaimCheck {
+        private final Object[] items;
+        // String items numbered for the bit set, numbers sorted without duplicates and found by binary search
+        private final Map<String, Integer> strings;
+        private final long[] numbers;
+        private final boolean nullItem;
+        private final int required;
+
+        ArrayContains(String claimName, Object[] items) {
+            super(claimName);
+            this.items = items;
+            Map<String, Integer> strings = null;
+            long[] numbers = null;
+            boolean nullItem = false;
+            if (items instanceof String[]) {
+                strings = new HashMap<>();
+                for (Object item : items) {
+                    if (item == null) {
+                        nullItem = true;
+                    } else {
+                        strings.putIfAbsent((String) item, strings.size());
+                    }
+                }
+            } else if (items != null) {
+                numbers = new long[items.length];
+                int count = 0;
+                for (Object item : items) {
+                    if (item == null) {
+                        nullItem = true;
+                    } else {
+                        numbers[count++] = ((Number) item).longValue();
+                    }
+                }
+                numbers = Arrays.stream(numbers, 0, count).sorted().distinct().toArray();
+            }
+            this.strings = strings;
+            this.numbers = numbers;
+            this.nullItem = nullItem;
+            this.required = (strings != null ? strings.size() : numbers != null ? numbers.length : 0)
+                    + (nullItem ? 1 : 0);
+        }
+
+        @Override
+        boolean test(IClaim claim, IDecodedJWT decodedJWT) {
+            if (items == null) {
+                return claim.isNull();
+            }
+            JsonNode array = ClaimNodes.nodeOf(claim);
+            if (array == null || !array.isArray()) {
+                return containsAllMapped(claim);
+            }
+            // the last bit stands for a null item
+            if (required <= Long.SIZE) {
+                long matched = 0;
+                for (int i = 0; i < array.size(); i++) {
+                    int index = indexOf(array.get(i));
+                    if (index >= 0) {
+                        matched |= 1L << index;
+                    }
+                }
+                return matched == allOf(required);
+            }
+            BitSet matched = new BitSet(required);
+            for (int i = 0; i < array.size(); i++) {
+                int index = indexOf(array.get(i));
+                if (index >= 0) {
+                    matched.set(index);
+                }
+            }
+            return matched.cardinality() == required;
+        }
+
+        @Override
+        int cost() {
+            return 2;
+        }
+
+        private int indexOf(JsonNode element) {
+            if (element.isNull()) {
+                return nullItem ? required - 1 : -1;
+            }
+            if (strings != null) {
+                Integer index = element.isTextual() ? strings.get(element.textValue()) : null;
+                return index != null ? index : -1;
+            }
+            // mapped like Jackson maps them on its own, Integer items only match int sized numbers
+            boolean comparable = items instanceof Long[] ? element.isInt() || element.isLong() : element.isInt();
+            return comparable ? Math.max(-1, Arrays.binarySearch(numbers, element.longValue())) : -1;
+        }
+
+        private boolean containsAllMapped(IClaim claim) {
+            Object[] claimAsObject = claim.as(Object[].class);
+            if (claimAsObject == null) {
+                return false;
+            }
+            List<Object> claimArr;
+            // Jackson uses 'natural' mapping which uses Integer if value fits in 32 bits.
+            if (items instanceof Long[]) {
+                // convert Integers to Longs for comparison with equals
+                claimArr = new ArrayList<>(claimAsObject.length);
+                for (Object cao : claimAsObject) {
+                    claimArr.add(cao instanceof Integer ? (Object) ((Integer) cao).longValue() : cao);
+                }
+            } else {
+                claimArr = Arrays.asList(claimAsObject);
+            }
+            return claimArr.containsAll(Arrays.asList(items));
+        }
+    }
+
+
+    private static long allOf(int count) {
+        return count == Long.SIZE ? -1L : (1L << count) - 1;
+    }
+
+
+    static final class Predicate extends ClaimCheck {
+        private final BiPredicate<IClaim, IDecodedJWT> predicate;
+
+        Predicate(String claimName, BiPredicate<IClaim, IDecodedJWT> predicate) {
+            super(claimName);
+            this.predicate = predicate;
+        }
+
+        @Override
+        boolean test(IClaim claim, IDecodedJWT decodedJWT) {
+            return predicate == null ? claim.isNull() : predicate.test(claim, decodedJWT);
+        }
+
+        @Override
+        boolean isCheap() {
+            return predicate == null;
+        }
+
+        @Override
+        int cost() {
+            return 8;
+        }
+    }
+}
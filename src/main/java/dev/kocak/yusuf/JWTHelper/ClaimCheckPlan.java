@@ -0,0 +1,293 @@
+package dev.kocak.yusuf.JWTHelper;
+
+import dev.kocak.yusuf.JWTHelper.exceptions.JWTVerificationException;
+import dev.kocak.yusuf.JWTHelper.model.IClaim;
+import dev.kocak.yusuf.JWTHelper.model.IDecodedJWT;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+
+// the expected checks of a verifier grouped per claim, so each claim is looked up once per token
+final class ClaimCheckPlan {
+
+    private static final long NO_CHECK = -1;
+    private static final int EXPIRES_AT_STEP = 0;
+    private static final int NOT_BEFORE_STEP = 1;
+    private static final int ISSUED_AT_STEP = 2;
+    private static final int TIME_STEPS = 3;
+
+    private final String[] claimNames;
+    private final ClaimCheck[][] checks;
+    private final long expiresAtLeeway;
+    private final long notBeforeLeeway;
+    private final long issuedAtLeeway;
+    private final Clock clock;
+    private final int[] fixedOrder;
+    private final CheckOrder adaptiveOrder;
+    private volatile TimeBounds bounds;
+
+    ClaimCheckPlan(List<ClaimCheck> expectedChecks, long expiresAtLeeway, long notBeforeLeeway,
+                   long issuedAtLeeway, boolean ignoreIssuedAt, Clock clock) {
+        this(expectedChecks, expiresAtLeeway, notBeforeLeeway, issuedAtLeeway, ignoreIssuedAt, clock, false);
+    }
+
+    ClaimCheckPlan(List<ClaimCheck> expectedChecks, long expiresAtLeeway, long notBeforeLeeway,
+                   long issuedAtLeeway, boolean ignoreIssuedAt, Clock clock, boolean adaptiveOrder) {
+        Map<String, List<ClaimCheck>> grouped = new LinkedHashMap<>();
+        for (ClaimCheck check : expectedChecks) {
+            grouped.computeIfAbsent(check.getClaimName(), name -> new ArrayList<>()).add(check);
+        }
+        this.claimNames = grouped.keySet().toArray(new String[0]);
+        this.checks = new ClaimCheck[claimNames.length][];
+        for (int i = 0; i < claimNames.length; i++) {
+            checks[i] = grouped.get(claimNames[i]).toArray(new ClaimCheck[0]);
+        }
+        this.expiresAtLeeway = expiresAtLeeway;
+        this.notBeforeLeeway = notBeforeLeeway;
+        this.issuedAtLeeway = ignoreIssuedAt ? NO_CHECK : issuedAtLeeway;
+        this.clock = clock;
+        int steps = claimNames.length + (ignoreIssuedAt ? TIME_STEPS - 1 : TIME_STEPS);
+        this.fixedOrder = new int[steps];
+        for (int step = 0; step < steps; step++) {
+            fixedOrder[step] = step;
+        }
+        this.adaptiveOrder = adaptiveOrder ? newCheckOrder() : null;
+    }
+
+    // user predicates aren't independent of the other checks, and they're the dearest, so they stay last
+    private CheckOrder newCheckOrder() {
+        int[] costs = new int[claimNames.length + TIME_STEPS];
+        boolean[] independent = new boolean[costs.length];
+        for (int step = 0; step < costs.length; step++) {
+            costs[step] = 1;
+            independent[step] = true;
+        }
+        for (int i = 0; i < claimNames.length; i++) {
+            for (ClaimCheck check : checks[i]) {
+                costs[i] += check.cost();
+                independent[i] &= check.isCheap();
+            }
+        }
+        return new CheckOrder(fixedOrder, costs, independent);
+    }
+
+    boolean check(IDecodedJWT jwt, VerificationResult result) {
+        TimeBounds bounds = timeBounds();
+        if (adaptiveOrder == null) {
+            return check(jwt, bounds, result, fixedOrder);
+        }
+        if (adaptiveOrder.sampleNext()) {
+            return sample(jwt, bounds, result);
+        }
+        return check(jwt, bounds, result, adaptiveOrder.current());
+    }
+
+    private boolean check(IDecodedJWT jwt, TimeBounds bounds, VerificationResult result, int[] order) {
+        for (int step : order) {
+            if (!checkStep(step, jwt, bounds, result)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // every independent step runs, so the counts don't depend on the order. Only the first failure is kept
+    private boolean sample(IDecodedJWT jwt, TimeBounds bounds, VerificationResult result) {
+        boolean valid = true;
+        for (int step : adaptiveOrder.current()) {
+            if (valid) {
+                valid = checkStep(step, jwt, bounds, result);
+                if (!valid) {
+                    adaptiveOrder.rejected(step);
+                }
+                continue;
+            }
+            if (!adaptiveOrder.isIndependent(step)) {
+                break;
+            }
+            try {
+                if (!checkStep(step, jwt, bounds, null)) {
+                    adaptiveOrder.rejected(step);
+                }
+            } catch (JWTVerificationException e) {
+                adaptiveOrder.rejected(step);
+            }
+        }
+        adaptiveOrder.sampled();
+        return valid;
+    }
+
+    private boolean checkStep(int step, IDecodedJWT jwt, TimeBounds bounds, VerificationResult result) {
+        if (step < claimNames.length) {
+            return checkClaim(step, jwt, result);
+        }
+        switch (step - claimNames.length) {
+            case EXPIRES_AT_STEP:
+                return checkExpiresAt(jwt, bounds, result);
+            case NOT_BEFORE_STEP:
+                return checkNotBefore(jwt, bounds, result);
+            default:
+                return checkIssuedAt(jwt, bounds, result);
+        }
+    }
+
+    private boolean checkClaim(int group, IDecodedJWT jwt, VerificationResult result) {
+        String claimName = claimNames[group];
+        IClaim claim = jwt.getClaim(claimName);
+        if (claim.isMissing()) {
+            return reject(result, VerificationResult.Reason.MISSING_CLAIM, jwt, claimName, null);
+        }
+        for (ClaimCheck check : checks[group]) {
+            if (!check.test(claim, jwt)) {
+                return reject(result, VerificationResult.Reason.INCORRECT_CLAIM, jwt, claimName, check);
+            }
+        }
+        return true;
+    }
+
+    List<String> order() {
+        int[] order = adaptiveOrder != null ? adaptiveOrder.current() : fixedOrder;
+        List<String> names = new ArrayList<>(order.length);
+        for (int step : order) {
+            names.add(stepName(step));
+        }
+        return names;
+    }
+
+    Map<String, Long> rejections() {
+        Map<String, Long> rejections = new LinkedHashMap<>();
+        if (adaptiveOrder != null) {
+            for (int step : adaptiveOrder.current()) {
+                rejections.merge(stepName(step), adaptiveOrder.rejections(step), Long::sum);
+            }
+        }
+        return rejections;
+    }
+
+    private String stepName(int step) {
+        if (step < claimNames.length) {
+            return claimNames[step];
+        }
+        switch (step - claimNames.length) {
+            case EXPIRES_AT_STEP:
+                return RegisteredClaims.EXPIRES_AT;
+            case NOT_BEFORE_STEP:
+                return RegisteredClaims.NOT_BEFORE;
+            default:
+                return RegisteredClaims.ISSUED_AT;
+        }
+    }
+
+    // for a token whose signature hasn't been checked yet, exp first as it turns down most of them
+    boolean precheck(IDecodedJWT jwt, VerificationResult result) {
+        if (!checkTimeClaims(jwt, timeBounds(), result)) {
+            return false;
+        }
+        for (int i = 0; i < claimNames.length; i++) {
+            IClaim claim = null;
+            for (ClaimCheck check : checks[i]) {
+                if (!check.isCheap()) {
+                    continue;
+                }
+                if (claim == null) {
+                    claim = jwt.getClaim(claimNames[i]);
+                }
+                try {
+                    if (claim.isMissing() || !check.test(claim, jwt)) {
+                        return false;
+                    }
+                } catch (JWTVerificationException e) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    boolean checkTimeClaims(IDecodedJWT jwt, VerificationResult result) {
+        return checkTimeClaims(jwt, timeBounds(), result);
+    }
+
+    long acceptedUntil(long expiresAt) {
+        return expiresAt > Long.MAX_VALUE - expiresAtLeeway ? Long.MAX_VALUE : expiresAt + expiresAtLeeway;
+    }
+
+    long epochSecond() {
+        return epochSecond(clock);
+    }
+
+    static long epochSecond(Clock clock) {
+        return clock instanceof CoarseClock ? ((CoarseClock) clock).epochSecond() : Math.floorDiv(clock.millis(), 1000);
+    }
+
+    private boolean checkTimeClaims(IDecodedJWT jwt, TimeBounds bounds, VerificationResult result) {
+        return checkExpiresAt(jwt, bounds, result) && checkNotBefore(jwt, bounds, result)
+                && checkIssuedAt(jwt, bounds, result);
+    }
+
+    private boolean checkExpiresAt(IDecodedJWT jwt, TimeBounds bounds, VerificationResult result) {
+        Instant expiresAt = jwt.getExpiresAtAsInstant();
+        if (expiresAt != null && expiresAt.getEpochSecond() < bounds.earliestExpiresAt) {
+            return reject(result, VerificationResult.Reason.TOKEN_EXPIRED, jwt, RegisteredClaims.EXPIRES_AT, null);
+        }
+        return true;
+    }
+
+    private boolean checkNotBefore(IDecodedJWT jwt, TimeBounds bounds, VerificationResult result) {
+        Instant notBefore = jwt.getNotBeforeAsInstant();
+        if (notBefore != null && notBefore.getEpochSecond() > bounds.latestNotBefore) {
+            return reject(result, VerificationResult.Reason.INCORRECT_CLAIM, jwt, RegisteredClaims.NOT_BEFORE, null);
+        }
+        return true;
+    }
+
+    private boolean checkIssuedAt(IDecodedJWT jwt, TimeBounds bounds, VerificationResult result) {
+        Instant issuedAt = issuedAtLeeway != NO_CHECK ? jwt.getIssuedAtAsInstant() : null;
+        if (issuedAt != null && issuedAt.getEpochSecond() > bounds.latestIssuedAt) {
+            return reject(result, VerificationResult.Reason.INCORRECT_CLAIM, jwt, RegisteredClaims.ISSUED_AT, null);
+        }
+        return true;
+    }
+
+    private static boolean reject(VerificationResult result, VerificationResult.Reason reason, IDecodedJWT jwt,
+                                  String claimName, ClaimCheck check) {
+        if (result != null) {
+            result.reject(reason, jwt, claimName, check);
+        }
+        return false;
+    }
+
+    // the bounds only change once a second, so they're shared until the clock moves on
+    private TimeBounds timeBounds() {
+        long now = epochSecond();
+        TimeBounds current = bounds;
+        if (current == null || current.now != now) {
+            current = new TimeBounds(now, expiresAtLeeway, notBeforeLeeway, issuedAtLeeway);
+            bounds = current;
+        }
+        return current;
+    }
+
+    private static final class TimeBounds {
+        private final long now;
+        private final long earliestExpiresAt;
+        private final long latestNotBefore;
+        private final long latestIssuedAt;
+
+        private TimeBounds(long now, long expiresAtLeeway, long notBeforeLeeway, long issuedAtLeeway) {
+            this.now = now;
+            this.earliestExpiresAt = now < Long.MIN_VALUE + expiresAtLeeway ? Long.MIN_VALUE : now - expiresAtLeeway;
+            this.latestNotBefore = plus(now, notBeforeLeeway);
+            this.latestIssuedAt = plus(now, issuedAtLeeway);
+        }
+
+        private static long plus(long now, long leeway) {
+            return now > Long.MAX_VALUE - leeway ? Long.MAX_VALUE : now + leeway;
+        }
+    }
+}
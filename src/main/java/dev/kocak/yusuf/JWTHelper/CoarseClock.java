@@ -0,0 +1,88 @@
+package dev.kocak.yusuf.JWTHelper;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+
+// clock with seconds precision that reads a shared value refreshed in the background a few times per second
+public final class CoarseClock extends Clock {
+
+    private final ZoneId zone;
+
+    private CoarseClock(ZoneId zone) {
+        this.zone = zone;
+    }
+
+
+    public static CoarseClock systemUTC() {
+        return Ticker.UTC;
+    }
+
+
+    public long epochSecond() {
+        return Ticker.epochSecond;
+    }
+
+    @Override
+    public ZoneId getZone() {
+        return zone;
+    }
+
+    @Override
+    public CoarseClock withZone(ZoneId zone) {
+        if (zone == null) {
+            throw new IllegalArgumentException("The Zone cannot be null.");
+        }
+        return zone.equals(this.zone) ? this : new CoarseClock(zone);
+    }
+
+    @Override
+    public long millis() {
+        return epochSecond() * 1000;
+    }
+
+    @Override
+    public Instant instant() {
+        return Instant.ofEpochSecond(epochSecond());
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        return obj instanceof CoarseClock && zone.equals(((CoarseClock) obj).zone);
+    }
+
+    @Override
+    public int hashCode() {
+        return zone.hashCode() + 1;
+    }
+
+    @Override
+    public String toString() {
+        return "CoarseClock[" + zone + "]";
+    }
+
+    private static final class Ticker {
+        private static final long TICK_MILLIS = 100;
+        private static final CoarseClock UTC = new CoarseClock(ZoneOffset.UTC);
+        private static volatile long epochSecond = currentEpochSecond();
+
+        static {
+            ScheduledExecutorService ticker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "jwt-coarse-clock");
+                thread.setDaemon(true);
+                return thread;
+            });
+            ticker.scheduleAtFixedRate(() -> epochSecond = currentEpochSecond(),
+                    TICK_MILLIS, TICK_MILLIS, TimeUnit.MILLISECONDS);
+        }
+
+        private static long currentEpochSecond() {
+            return Math.floorDiv(System.currentTimeMillis(), 1000);
+        }
+    }
+}
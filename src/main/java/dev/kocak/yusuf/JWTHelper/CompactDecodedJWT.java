@@ -0,0 +1,151 @@
+package dev.kocak.yusuf.JWTHelper;
+
+
+import dev.kocak.yusuf.JWTHelper.model.IClaim;
+import dev.kocak.yusuf.JWTHelper.model.IDecodedJWT;
+import dev.kocak.yusuf.JWTHelper.model.IHeader;
+import dev.kocak.yusuf.JWTHelper.model.IPayload;
+
+import java.io.Serializable;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+
+
+// the encoded parts are rebuilt when asked for, one that wouldn't come out the same is kept as sent
+final class CompactDecodedJWT implements IDecodedJWT, Serializable {
+
+    private static final long serialVersionUID = -3270452934617458806L;
+
+    private final IHeader header;
+    private final String headerSegment;
+    private final IPayload payload;
+    private final byte[] payloadJson;
+    private final String payloadSegment;
+    private final byte[] signature;
+    private final String signatureSegment;
+
+    CompactDecodedJWT(IHeader header, String headerSegment, IPayload payload, byte[] payloadJson,
+                      String payloadSegment, byte[] signature, String signatureSegment) {
+        this.header = header;
+        this.headerSegment = headerSegment;
+        this.payload = payload;
+        this.payloadJson = payloadJson;
+        this.payloadSegment = payloadSegment;
+        this.signature = signature;
+        this.signatureSegment = signatureSegment;
+    }
+
+    @Override
+    public String getAlgorithm() {
+        return header.getAlgorithm();
+    }
+
+    @Override
+    public String getType() {
+        return header.getType();
+    }
+
+    @Override
+    public String getContentType() {
+        return header.getContentType();
+    }
+
+    @Override
+    public String getKeyId() {
+        return header.getKeyId();
+    }
+
+    @Override
+    public IClaim getHeaderClaim(String name) {
+        return header.getHeaderClaim(name);
+    }
+
+    @Override
+    public String getIssuer() {
+        return payload.getIssuer();
+    }
+
+    @Override
+    public String getSubject() {
+        return payload.getSubject();
+    }
+
+    @Override
+    public List<String> getAudience() {
+        return payload.getAudience();
+    }
+
+    @Override
+    public Date getExpiresAt() {
+        return payload.getExpiresAt();
+    }
+
+    @Override
+    public Instant getExpiresAtAsInstant() {
+        return payload.getExpiresAtAsInstant();
+    }
+
+    @Override
+    public Date getNotBefore() {
+        return payload.getNotBefore();
+    }
+
+    @Override
+    public Instant getNotBeforeAsInstant() {
+        return payload.getNotBeforeAsInstant();
+    }
+
+    @Override
+    public Date getIssuedAt() {
+        return payload.getIssuedAt();
+    }
+
+    @Override
+    public Instant getIssuedAtAsInstant() {
+        return payload.getIssuedAtAsInstant();
+    }
+
+    @Override
+    public String getId() {
+        return payload.getId();
+    }
+
+    @Override
+    public IClaim getClaim(String name) {
+        return payload.getClaim(name);
+    }
+
+    @Override
+    public Map<String, IClaim> getClaims() {
+        return payload.getClaims();
+    }
+
+    @Override
+    public String getHeader() {
+        return headerSegment;
+    }
+
+    @Override
+    public String getPayload() {
+        if (payloadSegment != null) {
+            return payloadSegment;
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(payloadJson);
+    }
+
+    @Override
+    public String getSignature() {
+        if (signatureSegment != null) {
+            return signatureSegment;
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(signature);
+    }
+
+    @Override
+    public String getToken() {
+        return String.format("%s.%s.%s", getHeader(), getPayload(), getSignature());
+    }
+}
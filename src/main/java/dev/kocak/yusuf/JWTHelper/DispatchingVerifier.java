@@ -0,0 +1,210 @@
+package dev.kocak.yusuf.JWTHelper;
+
+import dev.kocak.yusuf.JWTHelper.exceptions.AlgorithmMismatchException;
+import dev.kocak.yusuf.JWTHelper.exceptions.JWTVerificationException;
+import dev.kocak.yusuf.JWTHelper.impl.JWTParser;
+import dev.kocak.yusuf.JWTHelper.model.IDecodedJWT;
+import dev.kocak.yusuf.JWTHelper.model.IJWTVerifier;
+
+import java.nio.ByteBuffer;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+
+// picks the verifier for a token from its header's alg and kid, the header is decoded once for both
+public final class DispatchingVerifier implements IJWTVerifier {
+
+    private final Map<String, Route> routes;
+    private final HeaderCache headerCache;
+
+    private DispatchingVerifier(Map<String, Route> routes, HeaderCache headerCache) {
+        this.routes = routes;
+        this.headerCache = headerCache;
+    }
+
+
+    static Builder init() {
+        return new Builder();
+    }
+
+
+    public static class Builder {
+        private final Map<String, Route> routes = new HashMap<>();
+        private HeaderCache headerCache;
+
+        Builder() {
+        }
+
+        // used for tokens whose kid has no verifier of its own, or that don't have a kid at all
+        public Builder register(JWTVerifier verifier) throws IllegalArgumentException {
+            return register(null, verifier);
+        }
+
+
+        public Builder register(String keyId, JWTVerifier verifier) throws IllegalArgumentException {
+            if (verifier == null) {
+                throw new IllegalArgumentException("The Verifier cannot be null.");
+            }
+            Route route = routes.computeIfAbsent(verifier.getAlgorithm().getName(), name -> new Route());
+            JWTVerifier previous = keyId == null ? route.anyKeyId : route.byKeyId.get(keyId);
+            if (previous != null) {
+                throw new IllegalArgumentException("A Verifier is already registered for that Algorithm and Key Id.");
+            }
+            if (keyId == null) {
+                route.anyKeyId = verifier;
+            } else {
+                route.byKeyId.put(keyId, verifier);
+            }
+            return this;
+        }
+
+
+        public Builder withHeaderCache(HeaderCache headerCache) {
+            this.headerCache = headerCache;
+            return this;
+        }
+
+
+        public DispatchingVerifier build() {
+            Map<String, Route> copy = new HashMap<>();
+            for (Map.Entry<String, Route> entry : routes.entrySet()) {
+                copy.put(entry.getKey(), entry.getValue().copy());
+            }
+            return new DispatchingVerifier(copy, headerCache);
+        }
+    }
+
+
+    @Override
+    public IDecodedJWT verify(String token) throws JWTVerificationException {
+        return verify((CharSequence) token);
+    }
+
+
+    @Override
+    public IDecodedJWT verify(CharSequence token) throws JWTVerificationException {
+        return verify(token, 0, token.length());
+    }
+
+
+    @Override
+    public IDecodedJWT verify(CharSequence token, int start, int end) throws JWTVerificationException {
+        byte[] bytes = TokenUtils.toAsciiBytes(token, start, end);
+        return verify(bytes, 0, bytes.length);
+    }
+
+
+    @Override
+    public IDecodedJWT verify(byte[] token, int offset, int length) throws JWTVerificationException {
+        JWTDecoder jwt = new JWTDecoder(JWTParser.getDefault(), headerCache, token, offset, length);
+        VerificationResult result = new VerificationResult();
+        if (!verifierFor(jwt.getAlgorithm(), jwt.getKeyId()).verifyDispatched(jwt, result)) {
+            throw result.toException();
+        }
+        return JWTDecoder.copiedFrom(token, result.getDecodedJWT());
+    }
+
+
+    @Override
+    public IDecodedJWT verify(ByteBuffer token) throws JWTVerificationException {
+        return verify(TokenUtils.arrayOf(token), TokenUtils.arrayOffsetOf(token), token.remaining());
+    }
+
+
+    @Override
+    public IDecodedJWT verify(IDecodedJWT jwt) throws JWTVerificationException {
+        return verifierFor(jwt.getAlgorithm(), jwt.getKeyId()).verify(jwt);
+    }
+
+
+    @Override
+    public VerificationResult tryVerify(CharSequence token, VerificationResult result) {
+        VerificationResult reset = VerificationResult.reuse(result, null, true);
+        try {
+            byte[] bytes = TokenUtils.toAsciiBytes(token, 0, token.length());
+            tryVerify(bytes, 0, bytes.length, reset);
+        } catch (JWTVerificationException e) {
+            reset.reject(e);
+        }
+        return reset;
+    }
+
+
+    @Override
+    public VerificationResult tryVerify(byte[] token, int offset, int length, VerificationResult result) {
+        VerificationResult reset = VerificationResult.reuse(result, null, true);
+        try {
+            JWTDecoder jwt = new JWTDecoder(JWTParser.getDefault(), headerCache, token, offset, length);
+            JWTVerifier verifier = find(jwt.getAlgorithm(), jwt.getKeyId(), reset);
+            if (verifier != null) {
+                verifier.verifyDispatched(jwt, reset);
+            }
+        } catch (JWTVerificationException e) {
+            reset.reject(e);
+        }
+        return reset.detachFrom(token);
+    }
+
+
+    @Override
+    public VerificationResult tryVerify(IDecodedJWT jwt, VerificationResult result) {
+        VerificationResult reset = VerificationResult.reuse(result, null, true);
+        try {
+            JWTVerifier verifier = find(jwt.getAlgorithm(), jwt.getKeyId(), reset);
+            return verifier != null ? verifier.tryVerify(jwt, reset) : reset;
+        } catch (JWTVerificationException e) {
+            reset.reject(e);
+            return reset;
+        }
+    }
+
+
+    @Override
+    public CompletableFuture<IDecodedJWT> verifyAsync(String token) {
+        if (token == null) {
+            throw new IllegalArgumentException("The Token cannot be null.");
+        }
+        return CompletableFuture.supplyAsync(() -> new JWTDecoder(JWTParser.getDefault(), headerCache, token),
+                VirtualThreads.executor())
+                .thenCompose(jwt -> verifierFor(jwt.getAlgorithm(), jwt.getKeyId()).verifyDispatchedAsync(jwt));
+    }
+
+    private JWTVerifier verifierFor(String algorithm, String keyId) throws AlgorithmMismatchException {
+        Route route = algorithm != null ? routes.get(algorithm) : null;
+        if (route == null) {
+            throw VerificationResult.unknownAlgorithm();
+        }
+        JWTVerifier verifier = route.verifierFor(keyId);
+        if (verifier == null) {
+            throw VerificationResult.unknownKeyId();
+        }
+        return verifier;
+    }
+
+    private JWTVerifier find(String algorithm, String keyId, VerificationResult result) {
+        Route route = algorithm != null ? routes.get(algorithm) : null;
+        JWTVerifier verifier = route != null ? route.verifierFor(keyId) : null;
+        if (verifier == null) {
+            result.reject(route == null ? VerificationResult.unknownAlgorithm() : VerificationResult.unknownKeyId());
+        }
+        return verifier;
+    }
+
+    private static final class Route {
+        private final Map<String, JWTVerifier> byKeyId = new HashMap<>();
+        private JWTVerifier anyKeyId;
+
+        JWTVerifier verifierFor(String keyId) {
+            JWTVerifier verifier = keyId != null ? byKeyId.get(keyId) : null;
+            return verifier != null ? verifier : anyKeyId;
+        }
+
+        Route copy() {
+            Route copy = new Route();
+            copy.byKeyId.putAll(byKeyId);
+            copy.anyKeyId = anyKeyId;
+            return copy;
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package dev.kocak.yusuf.JWTHelper;
+
+import dev.kocak.yusuf.JWTHelper.model.IHeader;
+
+import java.security.SecureRandom;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+
+public final class HeaderCache {
+
+    private static final int DEFAULT_MAXIMUM_SIZE = 64;
+    private static final int DEFAULT_ADMISSION_THRESHOLD = 2;
+    private static final int SIGHTINGS_PER_ENTRY = 4;
+    private static final int PROBES = 2;
+
+    private final AtomicReferenceArray<Entry> entries;
+    private final AtomicIntegerArray sightings;
+    private final int admissionThreshold;
+    private final long seed = new SecureRandom().nextLong();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    
+    public HeaderCache() {
+        this(DEFAULT_MAXIMUM_SIZE, DEFAULT_ADMISSION_THRESHOLD);
+    }
+
+    
+    public HeaderCache(int maximumSize, int admissionThreshold) throws IllegalArgumentException {
+        if (maximumSize <= 0) {
+            throw new IllegalArgumentException("The maximum size must be greater than zero.");
+        }
+        if (admissionThreshold <= 0) {
+            throw new IllegalArgumentException("The admission threshold must be greater than zero.");
+        }
+        this.entries = new AtomicReferenceArray<>(maximumSize);
+        this.sightings = new AtomicIntegerArray(maximumSize * SIGHTINGS_PER_ENTRY);
+        this.admissionThreshold = admissionThreshold;
+    }
+
+    
+    public long hitCount() {
+        return hits.sum();
+    }
+
+    
+    public long missCount() {
+        return misses.sum();
+    }
+
+    
+    public double hitRate() {
+        long hitCount = hitCount();
+        long requestCount = hitCount + missCount();
+        return requestCount == 0 ? 1.0 : (double) hitCount / requestCount;
+    }
+
+    
+    public int size() {
+        int size = 0;
+        for (int i = 0; i < entries.length(); i++) {
+            if (entries.get(i) != null) {
+                size++;
+            }
+        }
+        return size;
+    }
+
+    IHeader get(byte[] segment, int from, int to) {
+        int hash = hash(segment, from, to);
+        int index = indexFor(hash, entries.length());
+        for (int probe = 0; probe < PROBES; probe++) {
+            Entry entry = entries.get((index + probe) % entries.length());
+            if (entry != null && entry.matches(hash, segment, from, to)) {
+                hits.increment();
+                return entry.header;
+            }
+        }
+        misses.increment();
+        return null;
+    }
+
+    void offer(byte[] segment, int from, int to, IHeader header) {
+        int hash = hash(segment, from, to);
+        int sighting = indexFor(hash, sightings.length());
+        // headers have to show up a few times before they take a slot, one-off ones can't push out the rest
+        if (sightings.incrementAndGet(sighting) < admissionThreshold) {
+            return;
+        }
+        sightings.set(sighting, 0);
+        int index = indexFor(hash, entries.length());
+        int alternative = (index + 1) % entries.length();
+        if (entries.get(index) != null && entries.get(alternative) == null) {
+            index = alternative;
+        }
+        entries.set(index, new Entry(hash, segment, from, to, header));
+    }
+
+    // seeded, otherwise headers sharing a slot could be worked out up front and pushed past the admission
+    private int hash(byte[] segment, int from, int to) {
+        long hash = TokenUtils.hash(segment, from, to, seed);
+        return (int) (hash ^ (hash >>> 32));
+    }
+
+    private static int indexFor(int hash, int length) {
+        return (hash & 0x7FFFFFFF) % length;
+    }
+
+    private static final class Entry {
+        private final int hash;
+        private final byte[] segment;
+        private final IHeader header;
+
+        Entry(int hash, byte[] segment, int from, int to, IHeader header) {
+            this.hash = hash;
+            this.segment = new byte[to - from];
+            System.arraycopy(segment, from, this.segment, 0, this.segment.length);
+            this.header = header;
+        }
+
+        boolean matches(int hash, byte[] segment, int from, int to) {
+            if (this.hash != hash || this.segment.length != to - from) {
+                return false;
+            }
+            for (int i = 0; i < this.segment.length; i++) {
+                if (this.segment[i] != segment[from + i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
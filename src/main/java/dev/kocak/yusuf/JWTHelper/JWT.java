@@ -4,27 +4,126 @@ import dev.kocak.yusuf.JWTHelper.algorithms.Algorithm;
 import dev.kocak.yusuf.JWTHelper.exceptions.JWTDecodeException;
 import dev.kocak.yusuf.JWTHelper.impl.JWTParser;
 import dev.kocak.yusuf.JWTHelper.model.IDecodedJWT;
+import dev.kocak.yusuf.JWTHelper.model.IJWTPartsParser;
 import dev.kocak.yusuf.JWTHelper.model.IVerification;
 
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
 
 @SuppressWarnings("WeakerAccess")
 public class JWT {
 
-    private final JWTParser parser;
+    private final IJWTPartsParser parser;
+    private final HeaderCache headerCache;
 
     
     public JWT() {
-        parser = new JWTParser();
+        this(null);
+    }
+
+    
+    public JWT(HeaderCache headerCache) {
+        this(JWTParser.getDefault(), headerCache);
+    }
+
+    
+    public JWT(IJWTPartsParser parser, HeaderCache headerCache) {
+        if (parser == null) {
+            throw new IllegalArgumentException("The Parser cannot be null.");
+        }
+        this.parser = parser;
+        this.headerCache = headerCache;
     }
 
     
     public IDecodedJWT decodeJwt(String token) throws JWTDecodeException {
-        return new JWTDecoder(parser, token);
+        return new JWTDecoder(parser, headerCache, token).decodeParts();
+    }
+
+    
+    public IDecodedJWT decodeJwt(CharSequence token) throws JWTDecodeException {
+        return new JWTDecoder(parser, headerCache, token).decodeParts();
+    }
+
+    
+    public IDecodedJWT decodeJwt(CharSequence token, int start, int end) throws JWTDecodeException {
+        byte[] bytes = TokenUtils.toAsciiBytes(token, start, end);
+        return new JWTDecoder(parser, headerCache, bytes, 0, bytes.length).decodeParts();
+    }
+
+    
+    public IDecodedJWT decodeJwt(byte[] token, int offset, int length) throws JWTDecodeException {
+        byte[] copy = Arrays.copyOfRange(token, offset, offset + length);
+        return new JWTDecoder(parser, headerCache, copy, 0, length).decodeParts();
+    }
+
+    
+    public IDecodedJWT decodeJwt(ByteBuffer token) throws JWTDecodeException {
+        return new JWTDecoder(parser, headerCache, token).decodeParts();
+    }
+
+    
+    public IDecodedJWT decodeJwtLazily(CharSequence token) throws JWTDecodeException {
+        return new JWTDecoder(parser, headerCache, token);
+    }
+
+    
+    public IDecodedJWT decodeJwtLazily(byte[] token, int offset, int length) throws JWTDecodeException {
+        byte[] copy = Arrays.copyOfRange(token, offset, offset + length);
+        return new JWTDecoder(parser, headerCache, copy, 0, length);
     }
 
     
     public static IDecodedJWT decode(String token) throws JWTDecodeException {
-        return new JWTDecoder(token);
+        return new JWTDecoder(token).decodeParts();
+    }
+
+    
+    public static IDecodedJWT decode(CharSequence token) throws JWTDecodeException {
+        return new JWTDecoder(JWTParser.getDefault(), null, token).decodeParts();
+    }
+
+    
+    public static IDecodedJWT decode(CharSequence token, int start, int end) throws JWTDecodeException {
+        byte[] bytes = TokenUtils.toAsciiBytes(token, start, end);
+        return new JWTDecoder(JWTParser.getDefault(), null, bytes, 0, bytes.length).decodeParts();
+    }
+
+    
+    public static IDecodedJWT decode(byte[] token, int offset, int length) throws JWTDecodeException {
+        byte[] copy = Arrays.copyOfRange(token, offset, offset + length);
+        return new JWTDecoder(JWTParser.getDefault(), null, copy, 0, length).decodeParts();
+    }
+
+    
+    public static IDecodedJWT decode(ByteBuffer token) throws JWTDecodeException {
+        return new JWTDecoder(JWTParser.getDefault(), null, token).decodeParts();
+    }
+
+    
+    public static IDecodedJWT decodeLazily(CharSequence token) throws JWTDecodeException {
+        return new JWTDecoder(JWTParser.getDefault(), null, token);
+    }
+
+    
+    public static IDecodedJWT decodeLazily(byte[] token, int offset, int length) throws JWTDecodeException {
+        byte[] copy = Arrays.copyOfRange(token, offset, offset + length);
+        return new JWTDecoder(JWTParser.getDefault(), null, copy, 0, length);
+    }
+
+    
+    public static IDecodedJWT compact(IDecodedJWT jwt) throws JWTDecodeException {
+        if (jwt == null) {
+            throw new IllegalArgumentException("The JWT cannot be null.");
+        }
+        if (jwt instanceof CompactDecodedJWT) {
+            return jwt;
+        }
+        if (jwt instanceof JWTDecoder) {
+            return ((JWTDecoder) jwt).compact();
+        }
+        return new JWTDecoder(JWTParser.getDefault(), null, jwt.getToken()).compact();
     }
 
     
@@ -33,6 +132,11 @@ public class JWT {
     }
 
     
+    public static DispatchingVerifier.Builder dispatch() {
+        return DispatchingVerifier.init();
+    }
+
+    
     public static JWTCreator.Builder create() {
         return JWTCreator.init();
     }
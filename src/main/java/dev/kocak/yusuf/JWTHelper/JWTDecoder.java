@@ -1,16 +1,23 @@
 package dev.kocak.yusuf.JWTHelper;
 
 
+import dev.kocak.yusuf.JWTHelper.algorithms.Algorithm;
 import dev.kocak.yusuf.JWTHelper.exceptions.JWTDecodeException;
+import dev.kocak.yusuf.JWTHelper.exceptions.SignatureVerificationException;
 import dev.kocak.yusuf.JWTHelper.impl.JWTParser;
 import dev.kocak.yusuf.JWTHelper.model.IClaim;
 import dev.kocak.yusuf.JWTHelper.model.IDecodedJWT;
 import dev.kocak.yusuf.JWTHelper.model.IHeader;
+import dev.kocak.yusuf.JWTHelper.model.IJWTPartsParser;
 import dev.kocak.yusuf.JWTHelper.model.IPayload;
 
+import java.io.IOException;
+import java.io.ObjectOutputStream;
 import java.io.Serializable;
+import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
 import java.time.Instant;
+import java.util.Arrays;
 import java.util.Base64;
 import java.util.Date;
 import java.util.List;
@@ -22,132 +29,320 @@ final class JWTDecoder implements IDecodedJWT, Serializable {
 
     private static final long serialVersionUID = 1873362438023312895L;
 
-    private final String[] parts;
-    private final IHeader header;
-    private final IPayload payload;
+    private final byte[] token;
+    private final int start;
+    private final int headerEnd;
+    private final int payloadEnd;
+    private final int end;
+    private volatile IHeader header;
+    private volatile IPayload payload;
+    private transient volatile String[] parts;
+    private transient IJWTPartsParser converter;
+    private transient HeaderCache headerCache;
 
     JWTDecoder(String jwt) throws JWTDecodeException {
-        this(new JWTParser(), jwt);
+        this(JWTParser.getDefault(), null, jwt);
     }
 
-    JWTDecoder(JWTParser converter, String jwt) throws JWTDecodeException {
-        parts = TokenUtils.splitToken(jwt);
-        String headerJson;
-        String payloadJson;
+    JWTDecoder(IJWTPartsParser converter, HeaderCache headerCache, CharSequence jwt) throws JWTDecodeException {
+        this(converter, headerCache, TokenUtils.toAsciiBytes(jwt, 0, jwt.length()), 0, jwt.length());
+    }
+
+    JWTDecoder(IJWTPartsParser converter, HeaderCache headerCache, ByteBuffer jwt) throws JWTDecodeException {
+        this(converter, headerCache, TokenUtils.copyOf(jwt), 0, jwt.remaining());
+    }
+
+    JWTDecoder(IJWTPartsParser converter, HeaderCache headerCache, byte[] jwt, int offset, int length)
+            throws JWTDecodeException {
+        token = jwt;
+        start = offset;
+        end = offset + length;
+        headerEnd = TokenUtils.indexOfSeparator(jwt, start, end);
+        payloadEnd = headerEnd < 0 ? -1 : TokenUtils.indexOfSeparator(jwt, headerEnd + 1, end);
+        if (payloadEnd < 0 || TokenUtils.indexOfSeparator(jwt, payloadEnd + 1, end) >= 0) {
+            throw TokenUtils.wrongPartsCount(jwt, start, end);
+        }
+        this.converter = converter;
+        this.headerCache = headerCache;
+    }
+
+    JWTDecoder decodeParts() throws JWTDecodeException {
+        header();
+        payload();
+        return this;
+    }
+
+    IDecodedJWT compact() throws JWTDecodeException {
+        byte[] json;
+        byte[] signatureBytes;
+        try {
+            json = TokenUtils.decodeBase64Url(token, headerEnd + 1, payloadEnd);
+            signatureBytes = TokenUtils.decodeBase64Url(token, payloadEnd + 1, end);
+        } catch (IllegalArgumentException e) {
+            throw new JWTDecodeException("The input is not a valid base 64 encoded string.", e);
+        }
+        String headerSegment = new String(token, start, headerEnd - start, StandardCharsets.US_ASCII);
+        JWTParser compactParser = converter instanceof JWTParser ? (JWTParser) converter : JWTParser.getDefault();
+        IPayload compactPayload = compactParser.parseCompactPayload(json, 0, json.length);
+        return new CompactDecodedJWT(header(), headerSegment, compactPayload, json,
+                segmentUnlessReencoded(json, headerEnd + 1, payloadEnd), signatureBytes,
+                segmentUnlessReencoded(signatureBytes, payloadEnd + 1, end));
+    }
+
+    private String segmentUnlessReencoded(byte[] decoded, int from, int to) {
+        byte[] encoded = Base64.getUrlEncoder().withoutPadding().encode(decoded);
+        if (encoded.length == to - from) {
+            int i = 0;
+            while (i < encoded.length && encoded[i] == token[from + i]) {
+                i++;
+            }
+            if (i == encoded.length) {
+                return null;
+            }
+        }
+        return new String(token, from, to - from, StandardCharsets.US_ASCII);
+    }
+
+    JWTDecoder detached() throws JWTDecodeException {
+        decodeParts();
+        return over(Arrays.copyOfRange(token, start, end));
+    }
+
+    JWTDecoder over(byte[] copy) throws JWTDecodeException {
+        JWTDecoder moved = new JWTDecoder(converter, headerCache, copy, 0, copy.length);
+        moved.header = header;
+        moved.payload = payload;
+        return moved;
+    }
+
+    // verification reads the caller's array in place, what's handed back gets its own copy of the token
+    static IDecodedJWT copiedFrom(byte[] array, IDecodedJWT jwt) throws JWTDecodeException {
+        if (jwt instanceof JWTDecoder && ((JWTDecoder) jwt).token == array) {
+            JWTDecoder decoder = (JWTDecoder) jwt;
+            return decoder.over(Arrays.copyOfRange(array, decoder.start, decoder.end));
+        }
+        return jwt;
+    }
+
+    void useParser(IJWTPartsParser parser) {
+        this.converter = parser;
+    }
+
+    String peekIssuer() throws JWTDecodeException {
+        IPayload result = payload;
+        if (result != null) {
+            return result.getIssuer();
+        }
+        byte[] json = TokenUtils.scratchBuffer(payloadEnd - headerEnd - 1);
+        try {
+            int length = decodePart(headerEnd + 1, payloadEnd, json);
+            JWTParser peekParser = converter instanceof JWTParser ? (JWTParser) converter : JWTParser.getDefault();
+            return peekParser.peekString(json, 0, length, RegisteredClaims.ISSUER);
+        } finally {
+            TokenUtils.releaseScratchBuffer(json);
+        }
+    }
+
+    byte[] tokenBytes() {
+        return token;
+    }
+
+    int tokenStart() {
+        return start;
+    }
+
+    int tokenEnd() {
+        return end;
+    }
+
+    boolean hasToken(byte[] other, int from, int to) {
+        if (to - from != end - start) {
+            return false;
+        }
+        for (int i = start, j = from; i < end; i++, j++) {
+            if (token[i] != other[j]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private IHeader header() throws JWTDecodeException {
+        IHeader result = header;
+        if (result == null) {
+            result = headerCache != null ? headerCache.get(token, start, headerEnd) : null;
+            if (result == null) {
+                byte[] json = TokenUtils.scratchBuffer(headerEnd - start);
+                try {
+                    result = converter.parseHeader(json, 0, decodePart(start, headerEnd, json));
+                } finally {
+                    TokenUtils.releaseScratchBuffer(json);
+                }
+                if (headerCache != null) {
+                    headerCache.offer(token, start, headerEnd, result);
+                }
+            }
+            header = result;
+        }
+        return result;
+    }
+
+    private IPayload payload() throws JWTDecodeException {
+        IPayload result = payload;
+        if (result == null) {
+            byte[] json = TokenUtils.scratchBuffer(payloadEnd - headerEnd - 1);
+            try {
+                result = converter.parsePayload(json, 0, decodePart(headerEnd + 1, payloadEnd, json));
+            } finally {
+                TokenUtils.releaseScratchBuffer(json);
+            }
+            payload = result;
+        }
+        return result;
+    }
+
+    private int decodePart(int from, int to, byte[] json) throws JWTDecodeException {
         try {
-            headerJson = new String(Base64.getUrlDecoder().decode(parts[0]), StandardCharsets.UTF_8);
-            payloadJson = new String(Base64.getUrlDecoder().decode(parts[1]), StandardCharsets.UTF_8);
-        } catch (NullPointerException e) {
-            throw new JWTDecodeException("The UTF-8 Charset isn't initialized.", e);
+            return TokenUtils.decodeBase64Url(token, from, to, json);
         } catch (IllegalArgumentException e) {
             throw new JWTDecodeException("The input is not a valid base 64 encoded string.", e);
         }
-        header = converter.parseHeader(headerJson);
-        payload = converter.parsePayload(payloadJson);
+    }
+
+    private Object writeReplace() {
+        return start == 0 && end == token.length ? this : over(Arrays.copyOfRange(token, start, end));
+    }
+
+    private void writeObject(ObjectOutputStream out) throws IOException {
+        decodeParts();
+        out.defaultWriteObject();
+    }
+
+    boolean hasValidSignature(Algorithm algorithm) throws SignatureVerificationException {
+        byte[] signatureBytes;
+        try {
+            signatureBytes = TokenUtils.decodeBase64Url(token, payloadEnd + 1, end);
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+        return algorithm.isValid(this, token, start, payloadEnd - start, signatureBytes);
     }
 
     @Override
     public String getAlgorithm() {
-        return header.getAlgorithm();
+        return header().getAlgorithm();
     }
 
     @Override
     public String getType() {
-        return header.getType();
+        return header().getType();
     }
 
     @Override
     public String getContentType() {
-        return header.getContentType();
+        return header().getContentType();
     }
 
     @Override
     public String getKeyId() {
-        return header.getKeyId();
+        return header().getKeyId();
     }
 
     @Override
     public IClaim getHeaderClaim(String name) {
-        return header.getHeaderClaim(name);
+        return header().getHeaderClaim(name);
     }
 
     @Override
     public String getIssuer() {
-        return payload.getIssuer();
+        return payload().getIssuer();
     }
 
     @Override
     public String getSubject() {
-        return payload.getSubject();
+        return payload().getSubject();
     }
 
     @Override
     public List<String> getAudience() {
-        return payload.getAudience();
+        return payload().getAudience();
     }
 
     @Override
     public Date getExpiresAt() {
-        return payload.getExpiresAt();
+        return payload().getExpiresAt();
     }
 
     @Override
     public Instant getExpiresAtAsInstant() {
-        return payload.getExpiresAtAsInstant();
+        return payload().getExpiresAtAsInstant();
     }
 
     @Override
     public Date getNotBefore() {
-        return payload.getNotBefore();
+        return payload().getNotBefore();
     }
 
     @Override
     public Instant getNotBeforeAsInstant() {
-        return  payload.getNotBeforeAsInstant();
+        return payload().getNotBeforeAsInstant();
     }
 
     @Override
     public Date getIssuedAt() {
-        return payload.getIssuedAt();
+        return payload().getIssuedAt();
     }
 
     @Override
     public Instant getIssuedAtAsInstant() {
-        return payload.getIssuedAtAsInstant();
+        return payload().getIssuedAtAsInstant();
     }
 
     @Override
     public String getId() {
-        return payload.getId();
+        return payload().getId();
     }
 
     @Override
     public IClaim getClaim(String name) {
-        return payload.getClaim(name);
+        return payload().getClaim(name);
     }
 
     @Override
     public Map<String, IClaim> getClaims() {
-        return payload.getClaims();
+        return payload().getClaims();
     }
 
     @Override
     public String getHeader() {
-        return parts[0];
+        return parts()[0];
     }
 
     @Override
     public String getPayload() {
-        return parts[1];
+        return parts()[1];
     }
 
     @Override
     public String getSignature() {
-        return parts[2];
+        return parts()[2];
     }
 
     @Override
     public String getToken() {
-        return String.format("%s.%s.%s", parts[0], parts[1], parts[2]);
+        return new String(token, start, end - start, StandardCharsets.US_ASCII);
+    }
+
+    private String[] parts() {
+        String[] result = parts;
+        if (result == null) {
+            result = new String[]{
+                    new String(token, start, headerEnd - start, StandardCharsets.US_ASCII),
+                    new String(token, headerEnd + 1, payloadEnd - headerEnd - 1, StandardCharsets.US_ASCII),
+                    new String(token, payloadEnd + 1, end - payloadEnd - 1, StandardCharsets.US_ASCII)
+            };
+            parts = result;
+        }
+        return result;
     }
 }
@@ -3,29 +3,54 @@ package dev.kocak.yusuf.JWTHelper;
 import dev.kocak.yusuf.JWTHelper.algorithms.Algorithm;
 import dev.kocak.yusuf.JWTHelper.exceptions.*;
 import dev.kocak.yusuf.JWTHelper.impl.JWTParser;
+import dev.kocak.yusuf.JWTHelper.model.IJWTPartsParser;
 import dev.kocak.yusuf.JWTHelper.model.IClaim;
 import dev.kocak.yusuf.JWTHelper.model.IDecodedJWT;
-import dev.kocak.yusuf.JWTHelper.model.ExpectedCheckHolder;
 import dev.kocak.yusuf.JWTHelper.model.IJWTVerifier;
+import dev.kocak.yusuf.JWTHelper.model.IRevocationCheck;
 import dev.kocak.yusuf.JWTHelper.model.IVerification;
 
+import java.nio.ByteBuffer;
 import java.time.Clock;
-import java.time.Duration;
 import java.time.Instant;
-import java.time.temporal.ChronoUnit;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
 import java.util.function.BiPredicate;
 
 
 public final class JWTVerifier implements IJWTVerifier {
     private final Algorithm algorithm;
-    final List<ExpectedCheckHolder> expectedChecks;
-    private final JWTParser parser;
-
-    JWTVerifier(Algorithm algorithm, List<ExpectedCheckHolder> expectedChecks) {
+    private final ClaimCheckPlan claimChecks;
+    private final VerificationOrder verificationOrder;
+    private final HeaderCache headerCache;
+    private final IJWTPartsParser parser;
+    private final boolean writableStackTrace;
+    private final VerifiedTokenCache tokenCache;
+    private final RejectedTokenCache rejectedCache;
+    private final SingleFlight singleFlight;
+    private final Executor asyncExecutor;
+    private final IRevocationCheck revocationCheck;
+    private final ReplayGuard replayGuard;
+
+    JWTVerifier(Algorithm algorithm, ClaimCheckPlan claimChecks, VerificationOrder verificationOrder,
+                HeaderCache headerCache, IJWTPartsParser parser, Set<String> claimProjection,
+                boolean writableStackTrace, VerifiedTokenCache tokenCache, RejectedTokenCache rejectedCache,
+                boolean coalesceRequests, Executor asyncExecutor, IRevocationCheck revocationCheck,
+                ReplayGuard replayGuard) {
         this.algorithm = algorithm;
-        this.expectedChecks = Collections.unmodifiableList(expectedChecks);
-        this.parser = new JWTParser();
+        this.writableStackTrace = writableStackTrace;
+        this.claimChecks = claimChecks;
+        this.verificationOrder = verificationOrder;
+        this.headerCache = headerCache;
+        this.tokenCache = tokenCache;
+        this.rejectedCache = rejectedCache;
+        this.singleFlight = coalesceRequests ? new SingleFlight() : null;
+        this.asyncExecutor = asyncExecutor;
+        this.revocationCheck = revocationCheck;
+        this.replayGuard = replayGuard;
+        this.parser = claimProjection == null ? parser : parser.withProjection(claimProjection);
     }
 
     
@@ -36,11 +61,23 @@ public final class JWTVerifier implements IJWTVerifier {
     
     public static class BaseVerification implements IVerification {
         private final Algorithm algorithm;
-        private final List<ExpectedCheckHolder> expectedChecks;
+        private final List<ClaimCheck> expectedChecks;
         private long defaultLeeway;
         private final Map<String, Long> customLeeways;
         private boolean ignoreIssuedAt;
-        private Clock clock;
+        private VerificationOrder verificationOrder;
+        private HeaderCache headerCache;
+        private VerifiedTokenCache tokenCache;
+        private RejectedTokenCache rejectedCache;
+        private boolean coalesceRequests;
+        private Executor asyncExecutor;
+        private IRevocationCheck revocationCheck;
+        private ReplayGuard replayGuard;
+        private boolean stacklessExceptions;
+        private boolean coarseClock;
+        private boolean adaptiveCheckOrder;
+        private Set<String> claimProjection;
+        private IJWTPartsParser parser;
 
         BaseVerification(Algorithm algorithm) throws IllegalArgumentException {
             if (algorithm == null) {
@@ -51,60 +88,33 @@ public final class JWTVerifier implements IJWTVerifier {
             this.expectedChecks = new ArrayList<>();
             this.customLeeways = new HashMap<>();
             this.defaultLeeway = 0;
+            this.verificationOrder = VerificationOrder.DECODE_FIRST;
+            this.parser = JWTParser.getDefault();
         }
 
         @Override
         public IVerification withIssuer(String... issuer) {
-            List<String> value = isNullOrEmpty(issuer) ? null : Arrays.asList(issuer);
-            addCheck(RegisteredClaims.ISSUER, ((claim, decodedJWT) -> {
-                if (verifyNull(claim, value)) {
-                    return true;
-                }
-                if (value == null || !value.contains(claim.asString())) {
-                    throw new IncorrectClaimException(
-                            "The Claim 'iss' value doesn't match the required issuer.", RegisteredClaims.ISSUER, claim);
-                }
-                return true;
-            }));
+            expectedChecks.add(new ClaimCheck.Issuer(isNullOrEmpty(issuer) ? null : Arrays.asList(issuer)));
             return this;
         }
 
         @Override
         public IVerification withSubject(String subject) {
-            addCheck(RegisteredClaims.SUBJECT, (claim, decodedJWT) ->
-                    verifyNull(claim, subject) || subject.equals(claim.asString()));
+            expectedChecks.add(new ClaimCheck.StringEquals(RegisteredClaims.SUBJECT, subject));
             return this;
         }
 
         @Override
         public IVerification withAudience(String... audience) {
             List<String> value = isNullOrEmpty(audience) ? null : Arrays.asList(audience);
-            addCheck(RegisteredClaims.AUDIENCE, ((claim, decodedJWT) -> {
-                if (verifyNull(claim, value)) {
-                    return true;
-                }
-                if (!assertValidAudienceClaim(decodedJWT.getAudience(), value, true)) {
-                    throw new IncorrectClaimException("The Claim 'aud' value doesn't contain the required audience.",
-                            RegisteredClaims.AUDIENCE, claim);
-                }
-                return true;
-            }));
+            expectedChecks.add(new ClaimCheck.Audience(value, true));
             return this;
         }
 
         @Override
         public IVerification withAnyOfAudience(String... audience) {
             List<String> value = isNullOrEmpty(audience) ? null : Arrays.asList(audience);
-            addCheck(RegisteredClaims.AUDIENCE, ((claim, decodedJWT) -> {
-                if (verifyNull(claim, value)) {
-                    return true;
-                }
-                if (!assertValidAudienceClaim(decodedJWT.getAudience(), value, false)) {
-                    throw new IncorrectClaimException("The Claim 'aud' value doesn't contain the required audience.",
-                            RegisteredClaims.AUDIENCE, claim);
-                }
-                return true;
-            }));
+            expectedChecks.add(new ClaimCheck.Audience(value, false));
             return this;
         }
 
@@ -142,65 +152,160 @@ public final class JWTVerifier implements IJWTVerifier {
             return this;
         }
 
+        @Override
+        public IVerification withVerificationOrder(VerificationOrder order) throws IllegalArgumentException {
+            if (order == null) {
+                throw new IllegalArgumentException("The Verification Order cannot be null.");
+            }
+            this.verificationOrder = order;
+            return this;
+        }
+
+        @Override
+        public IVerification withHeaderCache(HeaderCache headerCache) {
+            this.headerCache = headerCache;
+            return this;
+        }
+
+        @Override
+        public IVerification withVerifiedTokenCache(VerifiedTokenCache tokenCache) {
+            this.tokenCache = tokenCache;
+            return this;
+        }
+
+        @Override
+        public IVerification withRejectedTokenCache(RejectedTokenCache rejectedCache) {
+            this.rejectedCache = rejectedCache;
+            return this;
+        }
+
+        @Override
+        public IVerification withRequestCoalescing() {
+            this.coalesceRequests = true;
+            return this;
+        }
+
+        @Override
+        public IVerification withAsyncExecutor(Executor executor) throws IllegalArgumentException {
+            if (executor == null) {
+                throw new IllegalArgumentException("The Executor cannot be null.");
+            }
+            this.asyncExecutor = executor;
+            return this;
+        }
+
+        @Override
+        public IVerification withRevocationCheck(IRevocationCheck revocationCheck) throws IllegalArgumentException {
+            if (revocationCheck == null) {
+                throw new IllegalArgumentException("The Revocation Check cannot be null.");
+            }
+            this.revocationCheck = revocationCheck;
+            return this;
+        }
+
+        @Override
+        public IVerification withReplayProtection(ReplayGuard replayGuard) throws IllegalArgumentException {
+            if (replayGuard == null) {
+                throw new IllegalArgumentException("The Replay Guard cannot be null.");
+            }
+            this.replayGuard = replayGuard;
+            return this;
+        }
+
+        @Override
+        public IVerification withParser(IJWTPartsParser parser) throws IllegalArgumentException {
+            if (parser == null) {
+                throw new IllegalArgumentException("The Parser cannot be null.");
+            }
+            this.parser = parser;
+            return this;
+        }
+
+        @Override
+        public IVerification withClaimProjection(String... claimNames) throws IllegalArgumentException {
+            if (claimNames == null) {
+                throw new IllegalArgumentException("The Claim names cannot be null.");
+            }
+            if (claimProjection == null) {
+                claimProjection = new HashSet<>();
+            }
+            for (String name : claimNames) {
+                assertNonNull(name);
+                claimProjection.add(name);
+            }
+            return this;
+        }
+
+        @Override
+        public IVerification withStacklessExceptions() {
+            this.stacklessExceptions = true;
+            return this;
+        }
+
+        @Override
+        public IVerification withCoarseClock() {
+            this.coarseClock = true;
+            return this;
+        }
+
+        @Override
+        public IVerification withAdaptiveCheckOrder() {
+            this.adaptiveCheckOrder = true;
+            return this;
+        }
+
         @Override
         public IVerification withJWTId(String jwtId) {
-            addCheck(RegisteredClaims.JWT_ID, ((claim, decodedJWT) ->
-                    verifyNull(claim, jwtId) || jwtId.equals(claim.asString())));
+            expectedChecks.add(new ClaimCheck.StringEquals(RegisteredClaims.JWT_ID, jwtId));
             return this;
         }
 
         @Override
         public IVerification withClaimPresence(String name) throws IllegalArgumentException {
             assertNonNull(name);
-            //since addCheck already checks presence, we just return true
-            withClaim(name, ((claim, decodedJWT) -> true));
+            expectedChecks.add(new ClaimCheck.Presence(name));
             return this;
         }
 
         @Override
         public IVerification withNullClaim(String name) throws IllegalArgumentException {
             assertNonNull(name);
-            withClaim(name, ((claim, decodedJWT) -> claim.isNull()));
+            expectedChecks.add(new ClaimCheck.Null(name));
             return this;
         }
 
         @Override
         public IVerification withClaim(String name, Boolean value) throws IllegalArgumentException {
             assertNonNull(name);
-            addCheck(name, ((claim, decodedJWT) -> verifyNull(claim, value)
-                    || value.equals(claim.asBoolean())));
+            expectedChecks.add(new ClaimCheck.BooleanEquals(name, value));
             return this;
         }
 
         @Override
         public IVerification withClaim(String name, Integer value) throws IllegalArgumentException {
             assertNonNull(name);
-            addCheck(name, ((claim, decodedJWT) -> verifyNull(claim, value)
-                    || value.equals(claim.asInt())));
+            expectedChecks.add(new ClaimCheck.IntegerEquals(name, value));
             return this;
         }
 
         @Override
         public IVerification withClaim(String name, Long value) throws IllegalArgumentException {
             assertNonNull(name);
-            addCheck(name, ((claim, decodedJWT) -> verifyNull(claim, value)
-                    || value.equals(claim.asLong())));
+            expectedChecks.add(new ClaimCheck.LongEquals(name, value));
             return this;
         }
 
         @Override
         public IVerification withClaim(String name, Double value) throws IllegalArgumentException {
             assertNonNull(name);
-            addCheck(name, ((claim, decodedJWT) -> verifyNull(claim, value)
-                    || value.equals(claim.asDouble())));
+            expectedChecks.add(new ClaimCheck.DoubleEquals(name, value));
             return this;
         }
 
         @Override
         public IVerification withClaim(String name, String value) throws IllegalArgumentException {
             assertNonNull(name);
-            addCheck(name, ((claim, decodedJWT) -> verifyNull(claim, value)
-                    || value.equals(claim.asString())));
+            expectedChecks.add(new ClaimCheck.StringEquals(name, value));
             return this;
         }
 
@@ -212,11 +317,7 @@ public final class JWTVerifier implements IJWTVerifier {
         @Override
         public IVerification withClaim(String name, Instant value) throws IllegalArgumentException {
             assertNonNull(name);
-            // Since date-time claims are serialized as epoch seconds,
-            // we need to compare them with only seconds-granularity
-            addCheck(name,
-                    ((claim, decodedJWT) -> verifyNull(claim, value)
-                            || value.truncatedTo(ChronoUnit.SECONDS).equals(claim.asInstant())));
+            expectedChecks.add(new ClaimCheck.InstantEquals(name, value));
             return this;
         }
 
@@ -224,45 +325,45 @@ public final class JWTVerifier implements IJWTVerifier {
         public IVerification withClaim(String name, BiPredicate<IClaim, IDecodedJWT> predicate)
                 throws IllegalArgumentException {
             assertNonNull(name);
-            addCheck(name, ((claim, decodedJWT) -> verifyNull(claim, predicate)
-                    || predicate.test(claim, decodedJWT)));
+            expectedChecks.add(new ClaimCheck.Predicate(name, predicate));
             return this;
         }
 
         @Override
         public IVerification withArrayClaim(String name, String... items) throws IllegalArgumentException {
             assertNonNull(name);
-            addCheck(name, ((claim, decodedJWT) -> verifyNull(claim, items)
-                    || assertValidCollectionClaim(claim, items)));
+            expectedChecks.add(new ClaimCheck.ArrayContains(name, items));
             return this;
         }
 
         @Override
         public IVerification withArrayClaim(String name, Integer... items) throws IllegalArgumentException {
             assertNonNull(name);
-            addCheck(name, ((claim, decodedJWT) -> verifyNull(claim, items)
-                    || assertValidCollectionClaim(claim, items)));
+            expectedChecks.add(new ClaimCheck.ArrayContains(name, items));
             return this;
         }
 
         @Override
         public IVerification withArrayClaim(String name, Long... items) throws IllegalArgumentException {
             assertNonNull(name);
-            addCheck(name, ((claim, decodedJWT) -> verifyNull(claim, items)
-                    || assertValidCollectionClaim(claim, items)));
+            expectedChecks.add(new ClaimCheck.ArrayContains(name, items));
             return this;
         }
 
         @Override
         public JWTVerifier build() {
-            return this.build(Clock.systemUTC());
+            return this.build(coarseClock ? CoarseClock.systemUTC() : Clock.systemUTC());
         }
 
         
         public JWTVerifier build(Clock clock) {
-            this.clock = clock;
-            addMandatoryClaimChecks();
-            return new JWTVerifier(algorithm, expectedChecks);
+            // the plan copies the checks, so building again after adding more doesn't touch earlier verifiers
+            ClaimCheckPlan claimChecks = new ClaimCheckPlan(expectedChecks,
+                    getLeewayFor(RegisteredClaims.EXPIRES_AT), getLeewayFor(RegisteredClaims.NOT_BEFORE),
+                    getLeewayFor(RegisteredClaims.ISSUED_AT), ignoreIssuedAt, clock, adaptiveCheckOrder);
+            return new JWTVerifier(algorithm, claimChecks, verificationOrder, headerCache, parser, projectedClaims(),
+                    !stacklessExceptions, tokenCache, rejectedCache, coalesceRequests, asyncExecutor,
+                    revocationCheck, replayGuard);
         }
 
         
@@ -270,77 +371,25 @@ public final class JWTVerifier implements IJWTVerifier {
             return customLeeways.getOrDefault(name, defaultLeeway);
         }
 
-        private void addMandatoryClaimChecks() {
-            long expiresAtLeeway = getLeewayFor(RegisteredClaims.EXPIRES_AT);
-            long notBeforeLeeway = getLeewayFor(RegisteredClaims.NOT_BEFORE);
-            long issuedAtLeeway = getLeewayFor(RegisteredClaims.ISSUED_AT);
-
-            expectedChecks.add(constructExpectedCheck(RegisteredClaims.EXPIRES_AT, (claim, decodedJWT) ->
-                    assertValidInstantClaim(RegisteredClaims.EXPIRES_AT, claim, expiresAtLeeway, true)));
-            expectedChecks.add(constructExpectedCheck(RegisteredClaims.NOT_BEFORE, (claim, decodedJWT) ->
-                    assertValidInstantClaim(RegisteredClaims.NOT_BEFORE, claim, notBeforeLeeway, false)));
-            if (!ignoreIssuedAt) {
-                expectedChecks.add(constructExpectedCheck(RegisteredClaims.ISSUED_AT, (claim, decodedJWT) ->
-                        assertValidInstantClaim(RegisteredClaims.ISSUED_AT, claim, issuedAtLeeway, false)));
+        private Set<String> projectedClaims() {
+            if (claimProjection == null) {
+                return null;
             }
-        }
-
-        private boolean assertValidCollectionClaim(IClaim IClaim, Object[] expectedClaimValue) {
-            List<Object> claimArr;
-            Object[] claimAsObject = IClaim.as(Object[].class);
-
-            // Jackson uses 'natural' mapping which uses Integer if value fits in 32 bits.
-            if (expectedClaimValue instanceof Long[]) {
-                // convert Integers to Longs for comparison with equals
-                claimArr = new ArrayList<>(claimAsObject.length);
-                for (Object cao : claimAsObject) {
-                    if (cao instanceof Integer) {
-                        claimArr.add(((Integer) cao).longValue());
-                    } else {
-                        claimArr.add(cao);
-                    }
-                }
-            } else {
-                claimArr = Arrays.asList(IClaim.as(Object[].class));
+            // whatever the checks read has to survive the projection
+            Set<String> names = new HashSet<>(claimProjection);
+            for (ClaimCheck check : expectedChecks) {
+                names.add(check.getClaimName());
             }
-            List<Object> valueArr = Arrays.asList(expectedClaimValue);
-            return claimArr.containsAll(valueArr);
-        }
-
-        private boolean assertValidInstantClaim(String claimName, IClaim IClaim, long leeway, boolean shouldBeFuture) {
-            Instant claimVal = IClaim.asInstant();
-            Instant now = clock.instant().truncatedTo(ChronoUnit.SECONDS);
-            boolean isValid;
-            if (shouldBeFuture) {
-                isValid = assertInstantIsFuture(claimVal, leeway, now);
-                if (!isValid) {
-                    throw new TokenExpiredException(String.format("The Token has expired on %s.", claimVal), claimVal);
-                }
-            } else {
-                isValid = assertInstantIsPast(claimVal, leeway, now);
-                if (!isValid) {
-                    throw new IncorrectClaimException(
-                            String.format("The Token can't be used before %s.", claimVal), claimName, IClaim);
-                }
+            if (revocationCheck != null) {
+                names.add(RegisteredClaims.JWT_ID);
+                names.add(RegisteredClaims.SUBJECT);
+                names.add(RegisteredClaims.ISSUED_AT);
             }
-            return true;
-        }
-
-        private boolean assertInstantIsFuture(Instant claimVal, long leeway, Instant now) {
-            return !(claimVal != null && now.minus(Duration.ofSeconds(leeway)).isAfter(claimVal));
-        }
-
-        private boolean assertInstantIsPast(Instant claimVal, long leeway, Instant now) {
-            return !(claimVal != null && now.plus(Duration.ofSeconds(leeway)).isBefore(claimVal));
-        }
-
-        private boolean assertValidAudienceClaim(
-                List<String> audience,
-                List<String> values,
-                boolean shouldContainAll
-        ) {
-            return !(audience == null || (shouldContainAll && !audience.containsAll(values))
-                    || (!shouldContainAll && Collections.disjoint(audience, values)));
+            if (replayGuard != null) {
+                names.add(RegisteredClaims.JWT_ID);
+                names.add(RegisteredClaims.EXPIRES_AT);
+            }
+            return names;
         }
 
         private void assertPositive(long leeway) {
@@ -355,33 +404,6 @@ public final class JWTVerifier implements IJWTVerifier {
             }
         }
 
-        private void addCheck(String name, BiPredicate<IClaim, IDecodedJWT> predicate) {
-            expectedChecks.add(constructExpectedCheck(name, (claim, decodedJWT) -> {
-                if (claim.isMissing()) {
-                    throw new MissingClaimException(name);
-                }
-                return predicate.test(claim, decodedJWT);
-            }));
-        }
-
-        private ExpectedCheckHolder constructExpectedCheck(String claimName, BiPredicate<IClaim, IDecodedJWT> check) {
-            return new ExpectedCheckHolder() {
-                @Override
-                public String getClaimName() {
-                    return claimName;
-                }
-
-                @Override
-                public boolean verify(IClaim IClaim, IDecodedJWT decodedJWT) {
-                    return check.test(IClaim, decodedJWT);
-                }
-            };
-        }
-
-        private boolean verifyNull(IClaim IClaim, Object value) {
-            return value == null && IClaim.isNull();
-        }
-
         private boolean isNullOrEmpty(String[] args) {
             if (args == null || args.length == 0) {
                 return true;
@@ -401,42 +423,343 @@ public final class JWTVerifier implements IJWTVerifier {
     
     @Override
     public IDecodedJWT verify(String token) throws JWTVerificationException {
-        IDecodedJWT jwt = new JWTDecoder(parser, token);
-        return verify(jwt);
+        return verify((CharSequence) token);
+    }
+
+    
+    @Override
+    public IDecodedJWT verify(CharSequence token) throws JWTVerificationException {
+        return verify(token, 0, token.length());
+    }
+
+    
+    @Override
+    public IDecodedJWT verify(CharSequence token, int start, int end) throws JWTVerificationException {
+        byte[] bytes = TokenUtils.toAsciiBytes(token, start, end);
+        return verifyToken(bytes, 0, bytes.length);
+    }
+
+    
+    @Override
+    public IDecodedJWT verify(byte[] token, int offset, int length) throws JWTVerificationException {
+        return JWTDecoder.copiedFrom(token, verifyToken(token, offset, length));
+    }
+
+    
+    @Override
+    public IDecodedJWT verify(ByteBuffer token) throws JWTVerificationException {
+        return verify(TokenUtils.arrayOf(token), TokenUtils.arrayOffsetOf(token), token.remaining());
     }
 
     
     @Override
     public IDecodedJWT verify(IDecodedJWT jwt) throws JWTVerificationException {
-        verifyAlgorithm(jwt, algorithm);
-        algorithm.verify(jwt);
-        verifyClaims(jwt, expectedChecks);
+        VerificationResult result = newResult();
+        if (!check(jwt, result) || !firstUse(result)) {
+            throw result.toException();
+        }
         return jwt;
     }
 
-    private void verifyAlgorithm(IDecodedJWT jwt, Algorithm expectedAlgorithm) throws AlgorithmMismatchException {
-        if (!expectedAlgorithm.getName().equals(jwt.getAlgorithm())) {
-            throw new AlgorithmMismatchException(
-                    "The provided Algorithm doesn't match the one defined in the JWT's Header.");
+    
+    @Override
+    public VerificationResult tryVerify(CharSequence token, VerificationResult result) {
+        VerificationResult reset = VerificationResult.reuse(result, algorithm, writableStackTrace);
+        try {
+            byte[] bytes = TokenUtils.toAsciiBytes(token, 0, token.length());
+            verifyToken(bytes, 0, bytes.length, reset);
+        } catch (JWTVerificationException e) {
+            reset.reject(e);
+        }
+        return reset;
+    }
+
+    
+    @Override
+    public VerificationResult tryVerify(byte[] token, int offset, int length, VerificationResult result) {
+        VerificationResult reset = VerificationResult.reuse(result, algorithm, writableStackTrace);
+        try {
+            verifyToken(token, offset, length, reset);
+        } catch (JWTVerificationException e) {
+            reset.reject(e);
+        }
+        return reset.detachFrom(token);
+    }
+
+    
+    @Override
+    public VerificationResult tryVerify(IDecodedJWT jwt, VerificationResult result) {
+        VerificationResult reset = VerificationResult.reuse(result, algorithm, writableStackTrace);
+        try {
+            if (check(jwt, reset)) {
+                firstUse(reset);
+            }
+        } catch (JWTVerificationException e) {
+            reset.reject(e);
+        }
+        return reset;
+    }
+
+    
+    @Override
+    public CompletableFuture<IDecodedJWT> verifyAsync(String token) {
+        if (token == null) {
+            throw new IllegalArgumentException("The Token cannot be null.");
+        }
+        CompletableFuture<IDecodedJWT> future = new CompletableFuture<>();
+        Executor executor = asyncExecutor != null ? asyncExecutor : VirtualThreads.executor();
+        executor.execute(() -> {
+            try {
+                byte[] bytes = TokenUtils.toAsciiBytes(token, 0, token.length());
+                VerificationResult result = newResult();
+                if (decidedByCache(bytes, 0, bytes.length, result)) {
+                    complete(future, result);
+                    return;
+                }
+                JWTDecoder jwt;
+                try {
+                    jwt = new JWTDecoder(parser, headerCache, bytes, 0, bytes.length);
+                } catch (JWTDecodeException e) {
+                    rememberMalformed(bytes, 0, bytes.length, e);
+                    throw e;
+                }
+                verifyAsync(jwt, result, future, executor);
+            } catch (RuntimeException e) {
+                future.completeExceptionally(e);
+            }
+        });
+        return future;
+    }
+
+    CompletableFuture<IDecodedJWT> verifyDispatchedAsync(JWTDecoder jwt) {
+        CompletableFuture<IDecodedJWT> future = new CompletableFuture<>();
+        try {
+            VerificationResult result = newResult();
+            byte[] token = jwt.tokenBytes();
+            int offset = jwt.tokenStart();
+            if (decidedByCache(token, offset, jwt.tokenEnd() - offset, result)) {
+                complete(future, result);
+                return future;
+            }
+            jwt.useParser(parser);
+            verifyAsync(jwt, result, future, asyncExecutor != null ? asyncExecutor : VirtualThreads.executor());
+        } catch (RuntimeException e) {
+            future.completeExceptionally(e);
+        }
+        return future;
+    }
+
+    // the decoder is kept until the key arrives, the token isn't decoded a second time for the checks
+    private void verifyAsync(JWTDecoder jwt, VerificationResult result, CompletableFuture<IDecodedJWT> future,
+                             Executor executor) throws JWTVerificationException {
+        algorithm.forKeyIdAsync(jwt.getKeyId()).whenComplete((keyAlgorithm, e) -> {
+            if (e != null) {
+                Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+                future.completeExceptionally(new SignatureVerificationException(algorithm, cause));
+                return;
+            }
+            // the key may have been delivered on the provider's thread, so hop back to the executor
+            executor.execute(() -> {
+                try {
+                    verifyShared(jwt, result, keyAlgorithm);
+                    complete(future, result);
+                } catch (RuntimeException failure) {
+                    future.completeExceptionally(failure);
+                }
+            });
+        });
+    }
+
+    private void complete(CompletableFuture<IDecodedJWT> future, VerificationResult result) {
+        if (result.isValid() && firstUse(result)) {
+            future.complete(result.getDecodedJWT());
+        } else {
+            future.completeExceptionally(result.toException());
+        }
+    }
+
+    private IDecodedJWT verifyToken(byte[] token, int offset, int length) throws JWTVerificationException {
+        VerificationResult result = newResult();
+        if (!verifyToken(token, offset, length, result)) {
+            throw result.toException();
+        }
+        return result.getDecodedJWT();
+    }
+
+    private boolean verifyToken(byte[] token, int offset, int length, VerificationResult result)
+            throws JWTVerificationException {
+        boolean valid = decidedByCache(token, offset, length, result) ? result.isValid()
+                : verifyShared(token, offset, length, result, algorithm);
+        return valid && firstUse(result);
+    }
+
+    private boolean decidedByCache(byte[] token, int offset, int length, VerificationResult result) {
+        if (tokenCache == null && rejectedCache == null) {
+            return false;
+        }
+        long now = claimChecks.epochSecond();
+        // repeats of a token we just turned down are rejected again before any decoding or crypto
+        if (rejectedCache != null && rejectedCache.replay(this, claimChecks, token, offset, offset + length, now,
+                result)) {
+            return true;
+        }
+        IDecodedJWT cached = tokenCache != null ? tokenCache.get(this, token, offset, offset + length, now) : null;
+        if (cached != null) {
+            // signature and claims were checked when it was cached, only the time based checks can change
+            // a revocation can come in after it was cached
+            if (claimChecks.checkTimeClaims(cached, result) && notRevoked(cached, result)) {
+                result.accept(cached);
+            }
+            return true;
+        }
+        return false;
+    }
+
+    private boolean verifyShared(byte[] token, int offset, int length, VerificationResult result,
+                                 Algorithm algorithm) throws JWTVerificationException {
+        if (singleFlight != null) {
+            return singleFlight.verify(token, offset, length, result,
+                    (bytes, from, count, shared) -> verifyUncached(bytes, from, count, shared, algorithm));
         }
+        return verifyUncached(token, offset, length, result, algorithm);
     }
 
-    private void verifyClaims(IDecodedJWT jwt, List<ExpectedCheckHolder> expectedChecks)
-            throws TokenExpiredException, InvalidClaimException {
-        for (ExpectedCheckHolder expectedCheck : expectedChecks) {
-            boolean isValid;
-            String claimName = expectedCheck.getClaimName();
-            IClaim IClaim = jwt.getClaim(claimName);
+    private boolean verifyShared(JWTDecoder jwt, VerificationResult result, Algorithm algorithm)
+            throws JWTVerificationException {
+        if (singleFlight != null) {
+            int offset = jwt.tokenStart();
+            return singleFlight.verify(jwt.tokenBytes(), offset, jwt.tokenEnd() - offset, result,
+                    (bytes, from, count, shared) -> verifyUncached(jwt, shared, algorithm));
+        }
+        return verifyUncached(jwt, result, algorithm);
+    }
 
-            isValid = expectedCheck.verify(IClaim, jwt);
+    private boolean verifyUncached(byte[] token, int offset, int length, VerificationResult result,
+                                   Algorithm algorithm) throws JWTVerificationException {
+        JWTDecoder jwt;
+        try {
+            jwt = new JWTDecoder(parser, headerCache, token, offset, length);
+        } catch (JWTDecodeException e) {
+            rememberMalformed(token, offset, offset + length, e);
+            throw e;
+        }
+        return verifyUncached(jwt, result, algorithm);
+    }
 
-            if (!isValid) {
-                throw new IncorrectClaimException(
-                        String.format("The Claim '%s' value doesn't match the required one.", claimName),
-                        claimName,
-                        IClaim
-                );
+    private boolean verifyUncached(JWTDecoder jwt, VerificationResult result, Algorithm algorithm)
+            throws JWTVerificationException {
+        try {
+            if (verificationOrder == VerificationOrder.DECODE_FIRST) {
+                jwt.decodeParts();
             }
+            if (check(jwt, result, algorithm)) {
+                if (tokenCache != null) {
+                    tokenCache.offer(this, jwt, claimChecks.epochSecond());
+                }
+                return true;
+            }
+        } catch (JWTDecodeException e) {
+            rememberMalformed(jwt.tokenBytes(), jwt.tokenStart(), jwt.tokenEnd(), e);
+            throw e;
+        }
+        // a token turned down before its signature was checked may still be genuine, e.g. one used too early
+        if (rejectedCache != null && !result.isUnverified()) {
+            rejectedCache.offer(this, jwt.tokenBytes(), jwt.tokenStart(), jwt.tokenEnd(), claimChecks.epochSecond(),
+                    result);
+        }
+        return false;
+    }
+
+    private void rememberMalformed(byte[] token, int from, int to, JWTDecodeException e) {
+        if (rejectedCache != null) {
+            rejectedCache.offer(this, token, from, to, claimChecks.epochSecond(), e);
+        }
+    }
+
+    public List<String> getCheckOrder() {
+        return claimChecks.order();
+    }
+
+    public Map<String, Long> getCheckRejections() {
+        return claimChecks.rejections();
+    }
+
+    Algorithm getAlgorithm() {
+        return algorithm;
+    }
+
+    boolean verifyDispatched(JWTDecoder jwt, VerificationResult result) throws JWTVerificationException {
+        result.reset(algorithm, writableStackTrace);
+        byte[] token = jwt.tokenBytes();
+        int offset = jwt.tokenStart();
+        int length = jwt.tokenEnd() - offset;
+        if (decidedByCache(token, offset, length, result)) {
+            return result.isValid() && firstUse(result);
+        }
+        jwt.useParser(parser);
+        return verifyShared(jwt, result, algorithm) && firstUse(result);
+    }
+
+    private boolean check(IDecodedJWT jwt, VerificationResult result) throws JWTVerificationException {
+        return check(jwt, result, algorithm);
+    }
+
+    // our own rejections are recorded in the result, only decoding and custom checks can still throw
+    private boolean check(IDecodedJWT jwt, VerificationResult result, Algorithm algorithm)
+            throws JWTVerificationException {
+        if (!algorithm.getName().equals(jwt.getAlgorithm())) {
+            return result.reject(VerificationResult.Reason.ALGORITHM_MISMATCH, jwt, null, null);
         }
+        if (verificationOrder == VerificationOrder.CLAIMS_FIRST && !claimChecks.precheck(jwt, result)) {
+            return result.rejectUnverified(jwt);
+        }
+        if (!hasValidSignature(jwt, algorithm)) {
+            return result.reject(VerificationResult.Reason.INVALID_SIGNATURE, jwt, null, null);
+        }
+        return claimChecks.check(jwt, result) && notRevoked(jwt, result) && result.accept(jwt);
+    }
+
+    private boolean notRevoked(IDecodedJWT jwt, VerificationResult result) {
+        if (revocationCheck != null && revocationCheck.isRevoked(jwt)) {
+            return result.reject(VerificationResult.Reason.REVOKED, jwt, null, null);
+        }
+        return true;
+    }
+
+    // runs after caching and coalescing, every caller records its own use, so only one of them gets through
+    private boolean firstUse(VerificationResult result) {
+        if (replayGuard == null) {
+            return true;
+        }
+        IDecodedJWT jwt = result.getDecodedJWT();
+        String jwtId = jwt.getId();
+        if (jwtId == null) {
+            return result.reject(VerificationResult.Reason.MISSING_CLAIM, jwt, RegisteredClaims.JWT_ID, null);
+        }
+        // without an exp there'd be nothing telling when the id can be forgotten
+        Instant expiresAt = jwt.getExpiresAtAsInstant();
+        if (expiresAt == null) {
+            return result.reject(VerificationResult.Reason.MISSING_CLAIM, jwt, RegisteredClaims.EXPIRES_AT, null);
+        }
+        long now = claimChecks.epochSecond();
+        if (!replayGuard.firstUse(jwtId, claimChecks.acceptedUntil(expiresAt.getEpochSecond()), now)) {
+            return result.reject(VerificationResult.Reason.REPLAYED, jwt, RegisteredClaims.JWT_ID, null);
+        }
+        return true;
+    }
+
+    private static boolean hasValidSignature(IDecodedJWT jwt, Algorithm algorithm)
+            throws SignatureVerificationException {
+        if (jwt instanceof JWTDecoder) {
+            return ((JWTDecoder) jwt).hasValidSignature(algorithm);
+        }
+        algorithm.verify(jwt);
+        return true;
+    }
+
+    private VerificationResult newResult() {
+        VerificationResult result = new VerificationResult();
+        result.reset(algorithm, writableStackTrace);
+        return result;
     }
 }
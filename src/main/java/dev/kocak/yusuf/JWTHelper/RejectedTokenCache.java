@@ -0,0 +1,178 @@
+package dev.kocak.yusuf.JWTHelper;
+
+import dev.kocak.yusuf.JWTHelper.exceptions.JWTDecodeException;
+
+import java.security.SecureRandom;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+
+public final class RejectedTokenCache {
+
+    private static final int DEFAULT_MAXIMUM_SIZE = 1024;
+    private static final long DEFAULT_WINDOW_SECONDS = 30;
+    // longer tokens aren't remembered, so a flood of huge ones can't pin that much memory
+    private static final int MAX_TOKEN_LENGTH = 8 * 1024;
+    private static final long FOREVER = Long.MAX_VALUE;
+    private static final int PROBES = 2;
+
+    private final AtomicReferenceArray<Entry> rejected;
+    private final AtomicReferenceArray<Entry> expired;
+    private final long windowSeconds;
+    private final long seed = new SecureRandom().nextLong();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder expiredHits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+
+    public RejectedTokenCache() {
+        this(DEFAULT_MAXIMUM_SIZE, DEFAULT_WINDOW_SECONDS);
+    }
+
+
+    public RejectedTokenCache(int maximumSize, long windowSeconds) throws IllegalArgumentException {
+        if (maximumSize <= 0) {
+            throw new IllegalArgumentException("The maximum size must be greater than zero.");
+        }
+        if (windowSeconds <= 0) {
+            throw new IllegalArgumentException("The window must be greater than zero.");
+        }
+        this.rejected = new AtomicReferenceArray<>(maximumSize);
+        this.expired = new AtomicReferenceArray<>(maximumSize);
+        this.windowSeconds = windowSeconds;
+    }
+
+    public long hitCount() {
+        return hits.sum();
+    }
+
+    public long expiredHitCount() {
+        return expiredHits.sum();
+    }
+
+
+    public long missCount() {
+        return misses.sum();
+    }
+
+
+    public int size() {
+        return count(rejected) + count(expired);
+    }
+
+    boolean replay(Object owner, ClaimCheckPlan claimChecks, byte[] token, int from, int to, long now,
+                   VerificationResult result) {
+        long hash = TokenUtils.hash(token, from, to, seed);
+        Entry entry = find(rejected, owner, hash, token, from, to);
+        if (entry != null && entry.until >= now) {
+            hits.increment();
+            if (entry.message != null) {
+                result.rejectMalformed(entry.message);
+            } else {
+                result.reject(VerificationResult.Reason.INVALID_SIGNATURE, null, null, null);
+            }
+            return true;
+        }
+        entry = find(expired, owner, hash, token, from, to);
+        // a clock set back may make it acceptable again, then it's verified as usual
+        if (entry != null && !claimChecks.checkTimeClaims(entry.jwt, result)) {
+            expiredHits.increment();
+            return true;
+        }
+        misses.increment();
+        return false;
+    }
+
+    void offer(Object owner, byte[] token, int from, int to, long now, JWTDecodeException cause) {
+        if (to - from <= MAX_TOKEN_LENGTH) {
+            // a message is what tells it apart from a bad signature, a parser of the caller's may leave it out
+            String message = cause.getMessage() != null ? cause.getMessage() : "The Token is malformed.";
+            store(rejected, new Entry(owner, TokenUtils.hash(token, from, to, seed), token, from, to,
+                    now + windowSeconds, message, null), now);
+        }
+    }
+
+    void offer(Object owner, byte[] token, int from, int to, long now, VerificationResult result) {
+        if (to - from > MAX_TOKEN_LENGTH) {
+            return;
+        }
+        long hash = TokenUtils.hash(token, from, to, seed);
+        if (result.getReason() == VerificationResult.Reason.INVALID_SIGNATURE) {
+            store(rejected, new Entry(owner, hash, token, from, to, now + windowSeconds, null, null), now);
+        } else if (result.getReason() == VerificationResult.Reason.TOKEN_EXPIRED
+                && result.getDecodedJWT() instanceof JWTDecoder) {
+            JWTDecoder detached = ((JWTDecoder) result.getDecodedJWT()).detached();
+            store(expired, new Entry(owner, hash, token, from, to, FOREVER, null, detached), now);
+        }
+    }
+
+    private static Entry find(AtomicReferenceArray<Entry> entries, Object owner, long hash, byte[] token, int from,
+                              int to) {
+        int index = indexFor(hash, entries.length());
+        for (int probe = 0; probe < PROBES; probe++) {
+            Entry entry = entries.get((index + probe) % entries.length());
+            if (entry != null && entry.matches(owner, hash, token, from, to)) {
+                return entry;
+            }
+        }
+        return null;
+    }
+
+    private static void store(AtomicReferenceArray<Entry> entries, Entry entry, long now) {
+        int index = indexFor(entry.hash, entries.length());
+        int alternative = (index + 1) % entries.length();
+        Entry current = entries.get(index);
+        if (current != null && current.until >= now) {
+            Entry other = entries.get(alternative);
+            if (other == null || other.until < now) {
+                index = alternative;
+            }
+        }
+        entries.set(index, entry);
+    }
+
+    private static int indexFor(long hash, int length) {
+        return (int) ((hash >>> 1) % length);
+    }
+
+    private static int count(AtomicReferenceArray<Entry> entries) {
+        int size = 0;
+        for (int i = 0; i < entries.length(); i++) {
+            if (entries.get(i) != null) {
+                size++;
+            }
+        }
+        return size;
+    }
+
+    private static final class Entry {
+        private final Object owner;
+        private final long hash;
+        private final byte[] token;
+        private final long until;
+        private final String message;
+        private final JWTDecoder jwt;
+
+        Entry(Object owner, long hash, byte[] token, int from, int to, long until, String message, JWTDecoder jwt) {
+            this.owner = owner;
+            this.hash = hash;
+            this.token = new byte[to - from];
+            System.arraycopy(token, from, this.token, 0, this.token.length);
+            this.until = until;
+            this.message = message;
+            this.jwt = jwt;
+        }
+
+        boolean matches(Object owner, long hash, byte[] token, int from, int to) {
+            if (this.owner != owner || this.hash != hash || this.token.length != to - from) {
+                return false;
+            }
+            for (int i = 0; i < this.token.length; i++) {
+                if (this.token[i] != token[from + i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
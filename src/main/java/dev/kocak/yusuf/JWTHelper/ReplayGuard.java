@@ -0,0 +1,164 @@
+package dev.kocak.yusuf.JWTHelper;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+
+// remembers the jti of accepted tokens until they expire, expired ids are dropped through a timing wheel
+public final class ReplayGuard {
+
+    private static final int MAX_STRIPES = 64;
+
+    private final Stripe[] stripes;
+    private final LongAdder replays = new LongAdder();
+
+
+    public ReplayGuard() {
+        int count = Integer.highestOneBit(Math.min(MAX_STRIPES, Runtime.getRuntime().availableProcessors() * 4));
+        this.stripes = new Stripe[count];
+        for (int i = 0; i < count; i++) {
+            stripes[i] = new Stripe();
+        }
+    }
+
+
+    public int size() {
+        int size = 0;
+        for (Stripe stripe : stripes) {
+            size += stripe.size();
+        }
+        return size;
+    }
+
+
+    public long replayCount() {
+        return replays.sum();
+    }
+
+    boolean firstUse(String jwtId, long until, long now) {
+        int hash = jwtId.hashCode();
+        if (stripes[(hash ^ (hash >>> 16)) & (stripes.length - 1)].add(jwtId, until, now)) {
+            return true;
+        }
+        replays.increment();
+        return false;
+    }
+
+    private static final class Entry {
+        private final String jwtId;
+        private final long expiresAt;
+        private Entry next;
+
+        Entry(String jwtId, long until) {
+            this.jwtId = jwtId;
+            this.expiresAt = until == Long.MAX_VALUE ? until : until + 1;
+        }
+    }
+
+    // four levels of 64 one second slots cover about 194 days, ids kept for longer wait in the overflow list
+    private static final class Stripe {
+        private static final int BITS = 6;
+        private static final int SLOTS = 1 << BITS;
+        private static final int MASK = SLOTS - 1;
+        private static final int LEVELS = 4;
+
+        private final Map<String, Entry> entries = new HashMap<>();
+        private final Entry[][] wheels = new Entry[LEVELS][SLOTS];
+        private Entry overflow;
+        private long current = Long.MIN_VALUE;
+
+        synchronized boolean add(String jwtId, long until, long now) {
+            advance(now);
+            if (entries.containsKey(jwtId)) {
+                return false;
+            }
+            Entry entry = new Entry(jwtId, until);
+            entries.put(jwtId, entry);
+            schedule(entry);
+            return true;
+        }
+
+        synchronized int size() {
+            return entries.size();
+        }
+
+        private void advance(long now) {
+            if (entries.isEmpty() || now - current > entries.size()) {
+                // stepping costs a second each, sorting everything again an entry each, so whichever is less
+                current = now;
+                rescheduleAll();
+                return;
+            }
+            while (current < now) {
+                current++;
+                cascade(1);
+                int slot = (int) (current & MASK);
+                Entry entry = wheels[0][slot];
+                wheels[0][slot] = null;
+                while (entry != null) {
+                    Entry next = entry.next;
+                    if (entry.expiresAt <= current) {
+                        entries.remove(entry.jwtId);
+                    } else {
+                        schedule(entry);
+                    }
+                    entry = next;
+                }
+            }
+        }
+
+        // the slot a higher level has come round to is spread over the levels below it
+        private void cascade(int level) {
+            if ((current & ((1L << (BITS * level)) - 1)) != 0) {
+                return;
+            }
+            Entry entry;
+            if (level < LEVELS) {
+                cascade(level + 1);
+                int slot = (int) ((current >>> (BITS * level)) & MASK);
+                entry = wheels[level][slot];
+                wheels[level][slot] = null;
+            } else {
+                entry = overflow;
+                overflow = null;
+            }
+            while (entry != null) {
+                Entry next = entry.next;
+                schedule(entry);
+                entry = next;
+            }
+        }
+
+        private void schedule(Entry entry) {
+            long delta = Math.max(0, entry.expiresAt - current);
+            for (int level = 0; level < LEVELS; level++) {
+                if (delta < 1L << (BITS * (level + 1))) {
+                    int slot = (int) ((entry.expiresAt >>> (BITS * level)) & MASK);
+                    entry.next = wheels[level][slot];
+                    wheels[level][slot] = entry;
+                    return;
+                }
+            }
+            entry.next = overflow;
+            overflow = entry;
+        }
+
+        private void rescheduleAll() {
+            for (Entry[] wheel : wheels) {
+                Arrays.fill(wheel, null);
+            }
+            overflow = null;
+            for (Iterator<Entry> iterator = entries.values().iterator(); iterator.hasNext(); ) {
+                Entry entry = iterator.next();
+                if (entry.expiresAt <= current) {
+                    iterator.remove();
+                } else {
+                    schedule(entry);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,266 @@
+package dev.kocak.yusuf.JWTHelper;
+
+import dev.kocak.yusuf.JWTHelper.model.IDecodedJWT;
+import dev.kocak.yusuf.JWTHelper.model.IRevocationCheck;
+
+import java.security.SecureRandom;
+import java.time.Clock;
+import java.time.Instant;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+
+// revoked tokens by jti, or by sub and iat for tokens without one. A bloom filter in front answers most
+// lookups for tokens that aren't revoked
+public final class RevocationList implements IRevocationCheck {
+
+    private static final int DEFAULT_EXPECTED_SIZE = 1 << 20;
+    // about 1% false positives while the list holds no more than the expected size
+    private static final int BITS_PER_ENTRY = 10;
+    private static final int HASHES = 7;
+    private static final long PURGE_INTERVAL_SECONDS = 60;
+    // covers the leeway verifiers usually give exp, a revoked token mustn't get through within it
+    private static final long DEFAULT_LEEWAY_SECONDS = 300;
+    private static final long FOREVER = Long.MAX_VALUE;
+
+    private final Map<String, Entry> byJwtId = new ConcurrentHashMap<>();
+    private final Map<String, Entry> bySubject = new ConcurrentHashMap<>();
+    private final int filterMask;
+    private final int maximumSize;
+    private final long leeway;
+    private final Clock clock;
+    private final long seed = new SecureRandom().nextLong();
+    private final LongAdder filtered = new LongAdder();
+    private final LongAdder hits = new LongAdder();
+    private final AtomicLong nextPurge = new AtomicLong();
+    // replaced as a whole when expired entries are purged, bits can't be taken out of it one by one
+    private volatile AtomicLongArray filter;
+
+
+    public RevocationList() {
+        this(DEFAULT_EXPECTED_SIZE);
+    }
+
+
+    public RevocationList(int expectedSize) throws IllegalArgumentException {
+        this(expectedSize, DEFAULT_LEEWAY_SECONDS, Clock.systemUTC());
+    }
+
+    public RevocationList(int expectedSize, long leeway, Clock clock) throws IllegalArgumentException {
+        this(expectedSize, (int) Math.min(Integer.MAX_VALUE, expectedSize * 2L), leeway, clock);
+    }
+
+    // past the expected size the filter lets more lookups through to the map, past the maximum size revoking fails
+    public RevocationList(int expectedSize, int maximumSize, long leeway, Clock clock)
+            throws IllegalArgumentException {
+        if (expectedSize <= 0) {
+            throw new IllegalArgumentException("The expected size must be greater than zero.");
+        }
+        if (maximumSize <= 0) {
+            throw new IllegalArgumentException("The maximum size must be greater than zero.");
+        }
+        if (leeway < 0) {
+            throw new IllegalArgumentException("Leeway value can't be negative.");
+        }
+        if (clock == null) {
+            throw new IllegalArgumentException("The Clock cannot be null.");
+        }
+        long bits = Long.highestOneBit(Math.max(64L, (long) expectedSize * BITS_PER_ENTRY - 1) << 1);
+        this.filterMask = (int) (Math.min(bits, 1L << 31) - 1);
+        this.maximumSize = maximumSize;
+        this.leeway = leeway;
+        this.clock = clock;
+        this.filter = new AtomicLongArray((filterMask >>> 6) + 1);
+    }
+
+    public void revoke(IDecodedJWT jwt) throws IllegalArgumentException, IllegalStateException {
+        if (jwt == null) {
+            throw new IllegalArgumentException("The Token cannot be null.");
+        }
+        String jwtId = jwt.getId();
+        if (jwtId != null) {
+            revoke(jwtId, jwt.getExpiresAtAsInstant());
+            return;
+        }
+        String subject = jwt.getSubject();
+        Instant issuedAt = jwt.getIssuedAtAsInstant();
+        if (subject == null || issuedAt == null) {
+            throw new IllegalArgumentException("The Token has neither a JWT Id nor a Subject and Issued At.");
+        }
+        revoke(subject, issuedAt, jwt.getExpiresAtAsInstant());
+    }
+
+
+    public void revoke(String jwtId, Instant expiresAt) throws IllegalArgumentException, IllegalStateException {
+        if (jwtId == null) {
+            throw new IllegalArgumentException("The JWT Id cannot be null.");
+        }
+        add(byJwtId, jwtId, TokenUtils.hash(jwtId, seed), expiresAt);
+    }
+
+
+    public void revoke(String subject, Instant issuedAt, Instant expiresAt)
+            throws IllegalArgumentException, IllegalStateException {
+        if (subject == null) {
+            throw new IllegalArgumentException("The Subject cannot be null.");
+        }
+        if (issuedAt == null) {
+            throw new IllegalArgumentException("The Issued At cannot be null.");
+        }
+        long issuedAtSecond = issuedAt.getEpochSecond();
+        add(bySubject, subjectKey(subject, issuedAtSecond), subjectHash(subject, issuedAtSecond), expiresAt);
+    }
+
+    @Override
+    public boolean isRevoked(IDecodedJWT jwt) {
+        long now = ClaimCheckPlan.epochSecond(clock);
+        purgeIfDue(now);
+        String jwtId = jwt.getId();
+        if (jwtId != null) {
+            return mightContain(TokenUtils.hash(jwtId, seed)) && contains(byJwtId, jwtId, now);
+        }
+        String subject = jwt.getSubject();
+        Instant issuedAt = subject != null ? jwt.getIssuedAtAsInstant() : null;
+        if (issuedAt == null) {
+            return false;
+        }
+        long issuedAtSecond = issuedAt.getEpochSecond();
+        return mightContain(subjectHash(subject, issuedAtSecond))
+                && contains(bySubject, subjectKey(subject, issuedAtSecond), now);
+    }
+
+
+    public int size() {
+        return byJwtId.size() + bySubject.size();
+    }
+
+
+    public long hitCount() {
+        return hits.sum();
+    }
+
+    public long filteredCount() {
+        return filtered.sum();
+    }
+
+    // writes are rare next to lookups, so they're serialized, which keeps a purge from losing a new entry's bits
+    private synchronized void add(Map<String, Entry> entries, String key, long hash, Instant expiresAt)
+            throws IllegalStateException {
+        long now = ClaimCheckPlan.epochSecond(clock);
+        purgeIfDue(now);
+        long until = expiresAt == null || expiresAt.getEpochSecond() > FOREVER - leeway
+                ? FOREVER : expiresAt.getEpochSecond() + leeway;
+        if (until < now) {
+            return;
+        }
+        if (size() >= maximumSize && !entries.containsKey(key)) {
+            // dropping an entry that hasn't expired would let a revoked token through again
+            purge(now);
+            if (size() >= maximumSize) {
+                throw new IllegalStateException("The Revocation List is full.");
+            }
+        }
+        entries.merge(key, new Entry(hash, until),
+                (current, added) -> current.until >= added.until ? current : added);
+        set(filter, hash);
+    }
+
+    // only the thread that moves the next purge on does it, the others carry on with their lookup
+    private void purgeIfDue(long now) {
+        long due = nextPurge.get();
+        if (now >= due && nextPurge.compareAndSet(due, now + PURGE_INTERVAL_SECONDS)) {
+            synchronized (this) {
+                purge(now);
+            }
+        }
+    }
+
+    private void purge(long now) {
+        boolean removed = removeExpired(byJwtId, now);
+        removed |= removeExpired(bySubject, now);
+        if (!removed) {
+            return;
+        }
+        AtomicLongArray rebuilt = new AtomicLongArray(filter.length());
+        for (Entry entry : byJwtId.values()) {
+            set(rebuilt, entry.hash);
+        }
+        for (Entry entry : bySubject.values()) {
+            set(rebuilt, entry.hash);
+        }
+        filter = rebuilt;
+    }
+
+    private boolean contains(Map<String, Entry> entries, String key, long now) {
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            return false;
+        }
+        if (entry.until < now) {
+            entries.remove(key, entry);
+            return false;
+        }
+        hits.increment();
+        return true;
+    }
+
+    private boolean mightContain(long hash) {
+        AtomicLongArray bits = filter;
+        int first = (int) hash;
+        int step = (int) (hash >>> 32) | 1;
+        for (int i = 0; i < HASHES; i++) {
+            int bit = (first + i * step) & filterMask;
+            if ((bits.get(bit >>> 6) & (1L << bit)) == 0) {
+                filtered.increment();
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void set(AtomicLongArray bits, long hash) {
+        int first = (int) hash;
+        int step = (int) (hash >>> 32) | 1;
+        for (int i = 0; i < HASHES; i++) {
+            int bit = (first + i * step) & filterMask;
+            long mask = 1L << bit;
+            long word = bits.get(bit >>> 6);
+            while ((word & mask) == 0 && !bits.compareAndSet(bit >>> 6, word, word | mask)) {
+                word = bits.get(bit >>> 6);
+            }
+        }
+    }
+
+    private long subjectHash(String subject, long issuedAt) {
+        return TokenUtils.hash(subject, ~seed ^ issuedAt * 0x9E3779B97F4A7C15L);
+    }
+
+    private static boolean removeExpired(Map<String, Entry> entries, long now) {
+        boolean removed = false;
+        for (Iterator<Entry> iterator = entries.values().iterator(); iterator.hasNext(); ) {
+            if (iterator.next().until < now) {
+                iterator.remove();
+                removed = true;
+            }
+        }
+        return removed;
+    }
+
+    private static String subjectKey(String subject, long issuedAt) {
+        return subject + '\u0000' + issuedAt;
+    }
+
+    private static final class Entry {
+        private final long hash;
+        private final long until;
+
+        Entry(long hash, long until) {
+            this.hash = hash;
+            this.until = until;
+        }
+    }
+}
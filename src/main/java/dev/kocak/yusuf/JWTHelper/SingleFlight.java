@@ -0,0 +1,97 @@
+package dev.kocak.yusuf.JWTHelper;
+
+import java.security.SecureRandom;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+
+
+// concurrent verifications of the same token share the one that started first
+final class SingleFlight {
+
+    interface Verification {
+        boolean verify(byte[] token, int offset, int length, VerificationResult result);
+    }
+
+    private final ConcurrentHashMap<Long, Flight> flights = new ConcurrentHashMap<>();
+    private final long seed = new SecureRandom().nextLong();
+
+    boolean verify(byte[] token, int offset, int length, VerificationResult result, Verification verification) {
+        Long hash = TokenUtils.hash(token, offset, offset + length, seed);
+        Flight flight = null;
+        Flight leader = flights.get(hash);
+        if (leader == null) {
+            flight = new Flight(token, offset, length);
+            leader = flights.putIfAbsent(hash, flight);
+        }
+        if (leader != null) {
+            if (leader.matches(token, offset, length) && leader.await(result)) {
+                return result.isValid();
+            }
+            return verification.verify(token, offset, length, result);
+        }
+        try {
+            boolean valid = verification.verify(token, offset, length, result);
+            flight.complete(result);
+            return valid;
+        } finally {
+            flights.remove(hash, flight);
+            flight.release();
+        }
+    }
+
+    private static final class Flight {
+        private final byte[] token;
+        private final CountDownLatch done = new CountDownLatch(1);
+        private volatile VerificationResult outcome;
+
+        Flight(byte[] token, int offset, int length) {
+            this.token = new byte[length];
+            System.arraycopy(token, offset, this.token, 0, length);
+        }
+
+        boolean matches(byte[] token, int offset, int length) {
+            if (this.token.length != length) {
+                return false;
+            }
+            for (int i = 0; i < length; i++) {
+                if (this.token[i] != token[offset + i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        // outcomes that came with an exception aren't shared, every follower gets an exception of its own
+        void complete(VerificationResult result) {
+            if (result.hasCause()) {
+                return;
+            }
+            VerificationResult copy = new VerificationResult();
+            copy.copyFrom(result);
+            if (result.getDecodedJWT() instanceof JWTDecoder) {
+                // the leader's decoder reads from its caller's array, which may be reused as soon as it returns
+                copy.useDecodedJWT(((JWTDecoder) result.getDecodedJWT()).over(token));
+            }
+            outcome = copy;
+        }
+
+        void release() {
+            done.countDown();
+        }
+
+        boolean await(VerificationResult result) {
+            try {
+                done.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+            VerificationResult shared = outcome;
+            if (shared == null) {
+                return false;
+            }
+            result.copyFrom(shared);
+            return true;
+        }
+    }
+}
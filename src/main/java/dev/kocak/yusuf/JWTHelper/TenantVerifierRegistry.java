@@ -0,0 +1,341 @@
+package dev.kocak.yusuf.JWTHelper;
+
+import dev.kocak.yusuf.JWTHelper.exceptions.IncorrectClaimException;
+import dev.kocak.yusuf.JWTHelper.exceptions.JWTVerificationException;
+import dev.kocak.yusuf.JWTHelper.impl.JWTParser;
+import dev.kocak.yusuf.JWTHelper.model.IDecodedJWT;
+import dev.kocak.yusuf.JWTHelper.model.IJWTVerifier;
+
+import java.nio.ByteBuffer;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+
+// picks the verifier for a token from its iss claim, verifiers are loaded on first use
+public final class TenantVerifierRegistry implements IJWTVerifier {
+
+    private static final int DEFAULT_MAXIMUM_SIZE = 10_000;
+    private static final int MAX_SEGMENTS = 64;
+    // issuers the loader didn't know are kept apart, a flood of made up issuers can't push out real tenants
+    private static final int UNKNOWN_ISSUERS = 1_024;
+    private static final IJWTVerifier UNKNOWN = DispatchingVerifier.init().build();
+
+    private final Function<String, ? extends IJWTVerifier> loader;
+    private final Segment[] segments;
+    private final Segment[] unknownIssuers;
+    private final ConcurrentMap<String, CompletableFuture<IJWTVerifier>> loading = new ConcurrentHashMap<>();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+
+    public TenantVerifierRegistry(Function<String, ? extends IJWTVerifier> loader) throws IllegalArgumentException {
+        this(loader, DEFAULT_MAXIMUM_SIZE);
+    }
+
+    // the loader returns null for issuers that aren't known
+    public TenantVerifierRegistry(Function<String, ? extends IJWTVerifier> loader, int maximumSize)
+            throws IllegalArgumentException {
+        if (loader == null) {
+            throw new IllegalArgumentException("The Loader cannot be null.");
+        }
+        if (maximumSize <= 0) {
+            throw new IllegalArgumentException("The maximum size must be greater than zero.");
+        }
+        int count = Integer.highestOneBit(Math.min(MAX_SEGMENTS, Runtime.getRuntime().availableProcessors() * 2));
+        while (count > 1 && maximumSize / count < 4) {
+            count >>= 1;
+        }
+        this.loader = loader;
+        this.segments = new Segment[count];
+        this.unknownIssuers = new Segment[count];
+        for (int i = 0; i < count; i++) {
+            segments[i] = new Segment(Math.max(1, maximumSize / count), evictions);
+            unknownIssuers[i] = new Segment(Math.max(1, UNKNOWN_ISSUERS / count), null);
+        }
+    }
+
+
+    public long hitCount() {
+        return hits.sum();
+    }
+
+    // every miss is a call to the loader, tokens that waited for another thread's call count as hits
+    public long missCount() {
+        return misses.sum();
+    }
+
+
+    public long evictionCount() {
+        return evictions.sum();
+    }
+
+
+    public int size() {
+        int size = 0;
+        for (Segment segment : segments) {
+            size += segment.size();
+        }
+        return size;
+    }
+
+    public void invalidate(String issuer) {
+        if (issuer != null) {
+            segmentFor(segments, issuer).remove(issuer);
+            segmentFor(unknownIssuers, issuer).remove(issuer);
+        }
+    }
+
+
+    public void invalidateAll() {
+        for (Segment segment : segments) {
+            segment.clear();
+        }
+        for (Segment segment : unknownIssuers) {
+            segment.clear();
+        }
+    }
+
+
+    @Override
+    public IDecodedJWT verify(String token) throws JWTVerificationException {
+        return verify((CharSequence) token);
+    }
+
+
+    @Override
+    public IDecodedJWT verify(CharSequence token) throws JWTVerificationException {
+        return verify(token, 0, token.length());
+    }
+
+
+    @Override
+    public IDecodedJWT verify(CharSequence token, int start, int end) throws JWTVerificationException {
+        byte[] bytes = TokenUtils.toAsciiBytes(token, start, end);
+        return verify(bytes, 0, bytes.length);
+    }
+
+
+    @Override
+    public IDecodedJWT verify(byte[] token, int offset, int length) throws JWTVerificationException {
+        String issuer = peekIssuer(token, offset, length);
+        return sameIssuer(issuer, verifierFor(issuer).verify(token, offset, length));
+    }
+
+
+    @Override
+    public IDecodedJWT verify(ByteBuffer token) throws JWTVerificationException {
+        return verify(TokenUtils.arrayOf(token), TokenUtils.arrayOffsetOf(token), token.remaining());
+    }
+
+
+    @Override
+    public IDecodedJWT verify(IDecodedJWT jwt) throws JWTVerificationException {
+        return verifierFor(jwt.getIssuer()).verify(jwt);
+    }
+
+
+    @Override
+    public VerificationResult tryVerify(CharSequence token, VerificationResult result) {
+        VerificationResult reset = VerificationResult.reuse(result, null, true);
+        try {
+            byte[] bytes = TokenUtils.toAsciiBytes(token, 0, token.length());
+            tryVerify(bytes, 0, bytes.length, reset);
+        } catch (JWTVerificationException e) {
+            reset.reject(e);
+        }
+        return reset;
+    }
+
+
+    @Override
+    public VerificationResult tryVerify(byte[] token, int offset, int length, VerificationResult result) {
+        VerificationResult reset = VerificationResult.reuse(result, null, true);
+        try {
+            String issuer = peekIssuer(token, offset, length);
+            IJWTVerifier verifier = find(issuer, reset);
+            if (verifier != null && verifier.tryVerify(token, offset, length, reset).isValid()) {
+                sameIssuer(issuer, reset.getDecodedJWT());
+            }
+        } catch (JWTVerificationException e) {
+            reset.reject(e);
+        } catch (RuntimeException e) {
+            reset.fail(e);
+        }
+        return reset;
+    }
+
+
+    @Override
+    public VerificationResult tryVerify(IDecodedJWT jwt, VerificationResult result) {
+        VerificationResult reset = VerificationResult.reuse(result, null, true);
+        try {
+            IJWTVerifier verifier = find(jwt.getIssuer(), reset);
+            return verifier != null ? verifier.tryVerify(jwt, reset) : reset;
+        } catch (JWTVerificationException e) {
+            reset.reject(e);
+            return reset;
+        } catch (RuntimeException e) {
+            reset.fail(e);
+            return reset;
+        }
+    }
+
+
+    @Override
+    public CompletableFuture<IDecodedJWT> verifyAsync(String token) {
+        if (token == null) {
+            throw new IllegalArgumentException("The Token cannot be null.");
+        }
+        return CompletableFuture.supplyAsync(() -> {
+            byte[] bytes = TokenUtils.toAsciiBytes(token, 0, token.length());
+            String issuer = peekIssuer(bytes, 0, bytes.length);
+            return verifierFor(issuer).verifyAsync(token).thenApply(jwt -> sameIssuer(issuer, jwt));
+        }, VirtualThreads.executor()).thenCompose(Function.identity());
+    }
+
+    // read from the raw payload, the tenant's verifier decodes it again with its own parser
+    private String peekIssuer(byte[] token, int offset, int length) throws JWTVerificationException {
+        String issuer = new JWTDecoder(JWTParser.getDefault(), null, token, offset, length).peekIssuer();
+        if (issuer == null) {
+            throw VerificationResult.missingIssuer();
+        }
+        return issuer;
+    }
+
+    // the verifier could read another iss than the peek did, e.g. with a parser of its own
+    private IDecodedJWT sameIssuer(String issuer, IDecodedJWT jwt) throws IncorrectClaimException {
+        if (!issuer.equals(jwt.getIssuer())) {
+            throw VerificationResult.unknownIssuer();
+        }
+        return jwt;
+    }
+
+    private IJWTVerifier verifierFor(String issuer) throws JWTVerificationException {
+        if (issuer == null) {
+            throw VerificationResult.missingIssuer();
+        }
+        IJWTVerifier verifier = load(issuer);
+        if (verifier == UNKNOWN) {
+            throw VerificationResult.unknownIssuer();
+        }
+        return verifier;
+    }
+
+    private IJWTVerifier find(String issuer, VerificationResult result) {
+        if (issuer == null) {
+            result.reject(VerificationResult.missingIssuer());
+            return null;
+        }
+        IJWTVerifier verifier = load(issuer);
+        if (verifier == UNKNOWN) {
+            result.reject(VerificationResult.unknownIssuer());
+            return null;
+        }
+        return verifier;
+    }
+
+    private IJWTVerifier load(String issuer) {
+        IJWTVerifier verifier = cached(issuer);
+        if (verifier != null) {
+            hits.increment();
+            return verifier;
+        }
+        CompletableFuture<IJWTVerifier> flight = new CompletableFuture<>();
+        CompletableFuture<IJWTVerifier> current = loading.putIfAbsent(issuer, flight);
+        if (current != null) {
+            try {
+                verifier = current.join();
+            } catch (CompletionException e) {
+                Throwable cause = e.getCause();
+                if (cause instanceof Error) {
+                    throw (Error) cause;
+                }
+                throw cause instanceof RuntimeException ? (RuntimeException) cause : e;
+            }
+            hits.increment();
+            return verifier;
+        }
+        try {
+            // the previous load may have been stored between the lookup and the putIfAbsent
+            verifier = cached(issuer);
+            if (verifier == null) {
+                misses.increment();
+                // loaded outside the segment's lock, a slow tenant mustn't hold up the others
+                verifier = store(issuer, loader.apply(issuer));
+            }
+            flight.complete(verifier);
+            return verifier;
+        } catch (Throwable e) {
+            flight.completeExceptionally(e);
+            throw e;
+        } finally {
+            loading.remove(issuer, flight);
+        }
+    }
+
+    private IJWTVerifier cached(String issuer) {
+        IJWTVerifier verifier = segmentFor(segments, issuer).get(issuer);
+        return verifier != null ? verifier : segmentFor(unknownIssuers, issuer).get(issuer);
+    }
+
+    private IJWTVerifier store(String issuer, IJWTVerifier verifier) {
+        return verifier != null ? segmentFor(segments, issuer).putIfAbsent(issuer, verifier)
+                : segmentFor(unknownIssuers, issuer).putIfAbsent(issuer, UNKNOWN);
+    }
+
+    private static Segment segmentFor(Segment[] segments, String issuer) {
+        int hash = issuer.hashCode();
+        return segments[(hash ^ (hash >>> 16)) & (segments.length - 1)];
+    }
+
+    private static final class Segment {
+        private final LinkedHashMap<String, IJWTVerifier> verifiers;
+
+        Segment(int maximumSize, LongAdder evictions) {
+            this.verifiers = new LinkedHashMap<String, IJWTVerifier>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, IJWTVerifier> eldest) {
+                    if (size() > maximumSize) {
+                        if (evictions != null) {
+                            evictions.increment();
+                        }
+                        return true;
+                    }
+                    return false;
+                }
+            };
+        }
+
+        synchronized IJWTVerifier get(String issuer) {
+            return verifiers.get(issuer);
+        }
+
+        synchronized IJWTVerifier putIfAbsent(String issuer, IJWTVerifier verifier) {
+            IJWTVerifier current = verifiers.get(issuer);
+            if (current != null) {
+                return current;
+            }
+            verifiers.put(issuer, verifier);
+            return verifier;
+        }
+
+        synchronized void remove(String issuer) {
+            verifiers.remove(issuer);
+        }
+
+        synchronized void clear() {
+            verifiers.clear();
+        }
+
+        synchronized int size() {
+            return verifiers.size();
+        }
+    }
+}
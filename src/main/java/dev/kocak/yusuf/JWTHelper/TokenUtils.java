@@ -3,19 +3,178 @@ package dev.kocak.yusuf.JWTHelper;
 
 import dev.kocak.yusuf.JWTHelper.exceptions.JWTDecodeException;
 
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
 abstract class TokenUtils {
 
-    
-    static String[] splitToken(String token) throws JWTDecodeException {
-        String[] parts = token.split("\\.");
-        if (parts.length == 2 && token.endsWith(".")) {
-            //Tokens with alg='none' have empty String as Signature.
-            parts = new String[]{parts[0], parts[1], ""};
+    private static final byte JWT_PART_SEPARATOR = (byte) '.';
+    private static final byte PADDING = (byte) '=';
+
+    private static final byte[] BASE64_URL_VALUES = new byte[128];
+
+    // scratch buffers are shared rather than kept per thread, a virtual thread would start without one
+    private static final int MAX_SCRATCH_LENGTH = 16 * 1024;
+    private static final int MIN_SCRATCH_LENGTH = 1024;
+    private static final int SCRATCH_BUFFERS =
+            Math.max(2, Integer.highestOneBit(Math.min(32, Runtime.getRuntime().availableProcessors() * 2)));
+    private static final AtomicReferenceArray<byte[]> SCRATCH = new AtomicReferenceArray<>(SCRATCH_BUFFERS);
+
+    static {
+        Arrays.fill(BASE64_URL_VALUES, (byte) -1);
+        String alphabet = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789-_";
+        for (int i = 0; i < alphabet.length(); i++) {
+            BASE64_URL_VALUES[alphabet.charAt(i)] = (byte) i;
+        }
+    }
+
+
+    static int indexOfSeparator(byte[] token, int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (token[i] == JWT_PART_SEPARATOR) {
+                return i;
+            }
         }
-        if (parts.length != 3) {
-            throw new JWTDecodeException(
-                    String.format("The token was expected to have 3 parts, but got %s.", parts.length));
+        return -1;
+    }
+
+
+    static JWTDecodeException wrongPartsCount(byte[] token, int from, int to) {
+        int parts = from == to ? 0 : 1;
+        for (int i = from; i < to; i++) {
+            if (token[i] == JWT_PART_SEPARATOR) {
+                parts++;
+            }
+        }
+        return new JWTDecodeException(
+                String.format("The token was expected to have 3 parts, but got %s.", parts));
+    }
+
+
+    static byte[] toAsciiBytes(CharSequence token, int start, int end) throws JWTDecodeException {
+        byte[] bytes = new byte[end - start];
+        for (int i = start; i < end; i++) {
+            char c = token.charAt(i);
+            if (c > 0x7F) {
+                throw new JWTDecodeException("The input is not a valid base 64 encoded string.");
+            }
+            bytes[i - start] = (byte) c;
+        }
+        return bytes;
+    }
+
+
+    static byte[] arrayOf(ByteBuffer token) {
+        return token.hasArray() ? token.array() : copyOf(token);
+    }
+
+
+    static byte[] copyOf(ByteBuffer token) {
+        byte[] bytes = new byte[token.remaining()];
+        token.duplicate().get(bytes);
+        return bytes;
+    }
+
+
+    static int arrayOffsetOf(ByteBuffer token) {
+        return token.hasArray() ? token.arrayOffset() + token.position() : 0;
+    }
+
+
+    static byte[] decodeBase64Url(byte[] src, int from, int to) throws IllegalArgumentException {
+        int end = to;
+        while (end > from && src[end - 1] == PADDING) {
+            end--;
+        }
+        int length = end - from;
+        byte[] dst = new byte[length / 4 * 3 + Math.max(length % 4 - 1, 0)];
+        decodeBase64Url(src, from, to, dst);
+        return dst;
+    }
+
+
+    static int decodeBase64Url(byte[] src, int from, int to, byte[] dst) throws IllegalArgumentException {
+        int end = to;
+        while (end > from && src[end - 1] == PADDING && to - end < 2) {
+            end--;
+        }
+        int length = end - from;
+        if (length % 4 == 1 || (end != to && (to - from) % 4 != 0)) {
+            throw new IllegalArgumentException("Input byte array has wrong 4-byte ending unit");
+        }
+
+        int bits = 0;
+        int shift = 18;
+        int d = 0;
+        for (int i = from; i < end; i++) {
+            int b = src[i];
+            int value = b < 0 ? -1 : BASE64_URL_VALUES[b];
+            if (value < 0) {
+                throw new IllegalArgumentException(
+                        "Illegal base64 character " + Integer.toString(b & 0xFF, 16));
+            }
+            bits |= value << shift;
+            shift -= 6;
+            if (shift < 0) {
+                dst[d++] = (byte) (bits >> 16);
+                dst[d++] = (byte) (bits >> 8);
+                dst[d++] = (byte) bits;
+                bits = 0;
+                shift = 18;
+            }
+        }
+        if (shift == 6) {
+            dst[d++] = (byte) (bits >> 16);
+        } else if (shift == 0) {
+            dst[d++] = (byte) (bits >> 16);
+            dst[d++] = (byte) (bits >> 8);
+        }
+        return d;
+    }
+
+
+    static byte[] scratchBuffer(int minLength) {
+        if (minLength > MAX_SCRATCH_LENGTH) {
+            return new byte[minLength];
+        }
+        for (int i = 0; i < SCRATCH_BUFFERS; i++) {
+            byte[] buffer = SCRATCH.get(i);
+            if (buffer != null && buffer.length >= minLength && SCRATCH.compareAndSet(i, buffer, null)) {
+                return buffer;
+            }
+        }
+        return new byte[Math.max(minLength, MIN_SCRATCH_LENGTH)];
+    }
+
+
+    static void releaseScratchBuffer(byte[] buffer) {
+        if (buffer.length > MAX_SCRATCH_LENGTH) {
+            return;
+        }
+        for (int i = 0; i < SCRATCH_BUFFERS; i++) {
+            byte[] current = SCRATCH.get(i);
+            if ((current == null || current.length < buffer.length) && SCRATCH.compareAndSet(i, current, buffer)) {
+                return;
+            }
+        }
+    }
+
+
+    // FNV-1a over the token, seeded per cache so slot placement can't be predicted from outside
+    static long hash(byte[] token, int from, int to, long seed) {
+        long hash = 0xCBF29CE484222325L ^ seed;
+        for (int i = from; i < to; i++) {
+            hash = (hash ^ token[i]) * 0x100000001B3L;
+        }
+        return hash ^ (hash >>> 29);
+    }
+
+    static long hash(CharSequence value, long seed) {
+        long hash = 0xCBF29CE484222325L ^ seed;
+        for (int i = 0; i < value.length(); i++) {
+            hash = (hash ^ value.charAt(i)) * 0x100000001B3L;
         }
-        return parts;
+        return hash ^ (hash >>> 29);
     }
 }
@@ -0,0 +1,15 @@
+package dev.kocak.yusuf.JWTHelper;
+
+
+public enum VerificationOrder {
+
+    
+    DECODE_FIRST,
+
+    
+    SIGNATURE_FIRST,
+
+    // built-in checks run on the unverified payload first, so expired or foreign tokens cost no crypto.
+    // They're reported as a bad signature, the claims of such a token can't be trusted
+    CLAIMS_FIRST
+}
@@ -0,0 +1,240 @@
+package dev.kocak.yusuf.JWTHelper;
+
+import dev.kocak.yusuf.JWTHelper.algorithms.Algorithm;
+import dev.kocak.yusuf.JWTHelper.exceptions.*;
+import dev.kocak.yusuf.JWTHelper.model.IDecodedJWT;
+
+import java.time.Instant;
+import java.util.function.Supplier;
+
+
+// outcome of IJWTVerifier.tryVerify, meant to be reused across calls by the same thread
+public final class VerificationResult {
+
+    public enum Reason {
+        VALID,
+        MALFORMED,
+        ALGORITHM_MISMATCH,
+        INVALID_SIGNATURE,
+        TOKEN_EXPIRED,
+        MISSING_CLAIM,
+        INCORRECT_CLAIM,
+        REVOKED,
+        REPLAYED,
+        // the verification itself failed, e.g. a custom check or key provider threw
+        ERROR
+    }
+
+    private static final String ALGORITHM_MISMATCH_MESSAGE =
+            "The provided Algorithm doesn't match the one defined in the JWT's Header.";
+
+    private Reason reason;
+    private String claimName;
+    private IDecodedJWT decodedJWT;
+    private Algorithm algorithm;
+    private boolean writableStackTrace;
+    private ClaimCheck failedCheck;
+    private JWTVerificationException cause;
+    private String malformedMessage;
+    private boolean unverified;
+
+
+    public boolean isValid() {
+        return reason == Reason.VALID;
+    }
+
+
+    public Reason getReason() {
+        return reason;
+    }
+
+
+    public String getClaimName() {
+        return claimName;
+    }
+
+
+    public IDecodedJWT getDecodedJWT() {
+        return decodedJWT;
+    }
+
+
+    public JWTVerificationException toException() {
+        if (reason == null || reason == Reason.VALID) {
+            return null;
+        }
+        if (cause != null) {
+            return cause;
+        }
+        switch (reason) {
+            case MALFORMED:
+                String message = malformedMessage;
+                return new JWTDecodeException(() -> message, false);
+            case ALGORITHM_MISMATCH:
+                return new AlgorithmMismatchException(ALGORITHM_MISMATCH_MESSAGE, writableStackTrace);
+            case INVALID_SIGNATURE:
+                return new SignatureVerificationException(algorithm, writableStackTrace);
+            case TOKEN_EXPIRED:
+                Instant expiresAt = decodedJWT.getExpiresAtAsInstant();
+                return new TokenExpiredException(() -> String.format("The Token has expired on %s.", expiresAt),
+                        expiresAt, writableStackTrace);
+            case MISSING_CLAIM:
+                return new MissingClaimException(claimName, writableStackTrace);
+            case REVOKED:
+                return new TokenRevokedException(() -> "The Token has been revoked.", writableStackTrace);
+            case REPLAYED:
+                return new TokenReplayedException(() -> "The Token has already been used.", writableStackTrace);
+            default:
+                return incorrectClaim();
+        }
+    }
+
+    // for verifiers that only have verify, the outcome of one call is recorded the way tryVerify records it
+    public VerificationResult record(Supplier<IDecodedJWT> verification) {
+        reset(null, true);
+        try {
+            accept(verification.get());
+        } catch (JWTVerificationException e) {
+            reject(e);
+        }
+        return this;
+    }
+
+    private JWTVerificationException incorrectClaim() {
+        ClaimCheck check = failedCheck;
+        if (check != null) {
+            return new IncorrectClaimException(check::failureMessage, claimName, decodedJWT.getClaim(claimName),
+                    writableStackTrace);
+        }
+        Instant value = RegisteredClaims.NOT_BEFORE.equals(claimName)
+                ? decodedJWT.getNotBeforeAsInstant() : decodedJWT.getIssuedAtAsInstant();
+        return new IncorrectClaimException(() -> String.format("The Token can't be used before %s.", value),
+                claimName, decodedJWT.getClaim(claimName), writableStackTrace);
+    }
+
+    void reset(Algorithm algorithm, boolean writableStackTrace) {
+        this.reason = null;
+        this.claimName = null;
+        this.decodedJWT = null;
+        this.algorithm = algorithm;
+        this.writableStackTrace = writableStackTrace;
+        this.failedCheck = null;
+        this.cause = null;
+        this.malformedMessage = null;
+        this.unverified = false;
+    }
+
+    static VerificationResult reuse(VerificationResult result, Algorithm algorithm, boolean writableStackTrace) {
+        if (result == null) {
+            throw new IllegalArgumentException("The Verification Result cannot be null.");
+        }
+        result.reset(algorithm, writableStackTrace);
+        return result;
+    }
+
+    // rejections of the routing verifiers, a new one each time since callers may add to what they're handed
+    static AlgorithmMismatchException unknownAlgorithm() {
+        return new AlgorithmMismatchException(ALGORITHM_MISMATCH_MESSAGE, false);
+    }
+
+    static AlgorithmMismatchException unknownKeyId() {
+        return new AlgorithmMismatchException(
+                "There's no Algorithm for the Key Id defined in the JWT's Header.", false);
+    }
+
+    static MissingClaimException missingIssuer() {
+        return new MissingClaimException(RegisteredClaims.ISSUER, false);
+    }
+
+    static IncorrectClaimException unknownIssuer() {
+        return new IncorrectClaimException(() -> "The Claim 'iss' value doesn't match any registered issuer.",
+                RegisteredClaims.ISSUER, null, false);
+    }
+
+    void copyFrom(VerificationResult other) {
+        this.reason = other.reason;
+        this.claimName = other.claimName;
+        this.decodedJWT = other.decodedJWT;
+        this.algorithm = other.algorithm;
+        this.writableStackTrace = other.writableStackTrace;
+        this.failedCheck = other.failedCheck;
+        this.cause = other.cause;
+        this.malformedMessage = other.malformedMessage;
+        this.unverified = other.unverified;
+    }
+
+    boolean hasCause() {
+        return cause != null;
+    }
+
+    void useDecodedJWT(IDecodedJWT jwt) {
+        this.decodedJWT = jwt;
+    }
+
+    VerificationResult detachFrom(byte[] array) {
+        decodedJWT = JWTDecoder.copiedFrom(array, decodedJWT);
+        return this;
+    }
+
+    boolean accept(IDecodedJWT jwt) {
+        this.reason = Reason.VALID;
+        this.decodedJWT = jwt;
+        return true;
+    }
+
+    boolean reject(Reason reason, IDecodedJWT jwt, String claimName, ClaimCheck failedCheck) {
+        this.reason = reason;
+        this.decodedJWT = jwt;
+        this.claimName = claimName;
+        this.failedCheck = failedCheck;
+        return false;
+    }
+
+    boolean fail(RuntimeException e) {
+        reset(algorithm, writableStackTrace);
+        reason = Reason.ERROR;
+        cause = e instanceof JWTVerificationException ? (JWTVerificationException) e
+                : new JWTVerificationException("The Token couldn't be verified.", e);
+        return false;
+    }
+
+    boolean rejectMalformed(String message) {
+        reject(Reason.MALFORMED, null, null, null);
+        malformedMessage = message;
+        return false;
+    }
+
+    boolean rejectUnverified(IDecodedJWT jwt) {
+        reject(Reason.INVALID_SIGNATURE, jwt, null, null);
+        unverified = true;
+        return false;
+    }
+
+    boolean isUnverified() {
+        return unverified;
+    }
+
+    boolean reject(JWTVerificationException e) {
+        cause = e;
+        if (e instanceof JWTDecodeException) {
+            reason = Reason.MALFORMED;
+        } else if (e instanceof AlgorithmMismatchException) {
+            reason = Reason.ALGORITHM_MISMATCH;
+        } else if (e instanceof SignatureVerificationException) {
+            reason = Reason.INVALID_SIGNATURE;
+        } else if (e instanceof TokenExpiredException) {
+            reason = Reason.TOKEN_EXPIRED;
+        } else if (e instanceof TokenRevokedException) {
+            reason = Reason.REVOKED;
+        } else if (e instanceof TokenReplayedException) {
+            reason = Reason.REPLAYED;
+        } else if (e instanceof MissingClaimException) {
+            reason = Reason.MISSING_CLAIM;
+            claimName = ((MissingClaimException) e).getClaimName();
+        } else {
+            reason = Reason.INCORRECT_CLAIM;
+            claimName = e instanceof IncorrectClaimException ? ((IncorrectClaimException) e).getClaimName() : null;
+        }
+        return false;
+    }
+}
@@ -0,0 +1,196 @@
+package dev.kocak.yusuf.JWTHelper;
+
+import dev.kocak.yusuf.JWTHelper.model.IDecodedJWT;
+
+import java.security.SecureRandom;
+import java.time.Instant;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+
+public final class VerifiedTokenCache {
+
+    private static final long DEFAULT_MAXIMUM_COST = 8L * 1024 * 1024;
+    static final int ENTRY_OVERHEAD = 512;
+    private static final int MAX_SEGMENTS = 64;
+
+    private final Segment[] segments;
+    private final long seed = new SecureRandom().nextLong();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+
+    public VerifiedTokenCache() {
+        this(DEFAULT_MAXIMUM_COST);
+    }
+
+
+    public VerifiedTokenCache(long maximumCost) throws IllegalArgumentException {
+        if (maximumCost <= 0) {
+            throw new IllegalArgumentException("The maximum cost must be greater than zero.");
+        }
+        int count = Integer.highestOneBit(Math.min(MAX_SEGMENTS, Runtime.getRuntime().availableProcessors() * 2));
+        while (count > 1 && maximumCost / count < 4 * ENTRY_OVERHEAD) {
+            count >>= 1;
+        }
+        this.segments = new Segment[count];
+        for (int i = 0; i < count; i++) {
+            segments[i] = new Segment(maximumCost / count);
+        }
+    }
+
+
+    public long hitCount() {
+        return hits.sum();
+    }
+
+
+    public long missCount() {
+        return misses.sum();
+    }
+
+
+    public long evictionCount() {
+        return evictions.sum();
+    }
+
+
+    public double hitRate() {
+        long hitCount = hitCount();
+        long requestCount = hitCount + missCount();
+        return requestCount == 0 ? 1.0 : (double) hitCount / requestCount;
+    }
+
+
+    public int size() {
+        int size = 0;
+        for (Segment segment : segments) {
+            size += segment.size();
+        }
+        return size;
+    }
+
+
+    public void invalidateAll() {
+        for (Segment segment : segments) {
+            segment.clear();
+        }
+    }
+
+    // entries only match the verifier that stored them, a shared cache can't skip another verifier's checks
+    IDecodedJWT get(Object owner, byte[] token, int from, int to, long now) {
+        long hash = TokenUtils.hash(token, from, to, seed);
+        Entry entry = segmentFor(hash).get(hash, now);
+        if (entry != null && entry.owner == owner && entry.jwt.hasToken(token, from, to)) {
+            hits.increment();
+            return entry.jwt;
+        }
+        misses.increment();
+        return null;
+    }
+
+    void offer(Object owner, JWTDecoder jwt, long now) {
+        Instant expiresAt = jwt.getExpiresAtAsInstant();
+        // tokens without an expiry are never cached, there'd be nothing bounding how long they stay trusted
+        if (expiresAt == null || expiresAt.getEpochSecond() < now) {
+            return;
+        }
+        JWTDecoder detached = jwt.detached();
+        int length = detached.tokenEnd() - detached.tokenStart();
+        long hash = TokenUtils.hash(detached.tokenBytes(), detached.tokenStart(), detached.tokenEnd(), seed);
+        Entry entry = new Entry(owner, detached, expiresAt.getEpochSecond(), length + ENTRY_OVERHEAD);
+        evictions.add(segmentFor(hash).put(hash, entry));
+    }
+
+    private Segment segmentFor(long hash) {
+        return segments[(int) (hash ^ (hash >>> 32)) & (segments.length - 1)];
+    }
+
+    private static final class Entry {
+        private final Object owner;
+        private final JWTDecoder jwt;
+        private final long expiresAt;
+        private final int cost;
+        private volatile boolean referenced;
+
+        Entry(Object owner, JWTDecoder jwt, long expiresAt, int cost) {
+            this.owner = owner;
+            this.jwt = jwt;
+            this.expiresAt = expiresAt;
+            this.cost = cost;
+        }
+    }
+
+    // reads don't lock, they only mark the entry. Eviction sweeps a clock hand over the segment and takes the
+    // first entry that wasn't read since the hand last passed it, so recency is approximate
+    private static final class Segment {
+        private final long maximumCost;
+        private final ConcurrentHashMap<Long, Entry> entries = new ConcurrentHashMap<>();
+        private final AtomicLong cost = new AtomicLong();
+        private Iterator<Map.Entry<Long, Entry>> hand;
+
+        Segment(long maximumCost) {
+            this.maximumCost = maximumCost;
+        }
+
+        Entry get(long hash, long now) {
+            Entry entry = entries.get(hash);
+            if (entry == null) {
+                return null;
+            }
+            if (entry.expiresAt < now) {
+                remove(hash, entry);
+                return null;
+            }
+            if (!entry.referenced) {
+                entry.referenced = true;
+            }
+            return entry;
+        }
+
+        synchronized int put(long hash, Entry entry) {
+            Entry previous = entries.put(hash, entry);
+            cost.addAndGet(entry.cost - (previous != null ? previous.cost : 0));
+            int evicted = 0;
+            for (int steps = 2 * entries.size(); cost.get() > maximumCost && steps > 0; steps--) {
+                if (hand == null || !hand.hasNext()) {
+                    hand = entries.entrySet().iterator();
+                }
+                Map.Entry<Long, Entry> next = hand.next();
+                Entry victim = next.getValue();
+                if (victim == entry) {
+                    continue;
+                }
+                if (victim.referenced) {
+                    victim.referenced = false;
+                } else if (remove(next.getKey(), victim)) {
+                    evicted++;
+                }
+            }
+            return evicted;
+        }
+
+        private boolean remove(long hash, Entry entry) {
+            if (entries.remove(hash, entry)) {
+                cost.addAndGet(-entry.cost);
+                return true;
+            }
+            return false;
+        }
+
+        int size() {
+            return entries.size();
+        }
+
+        synchronized void clear() {
+            for (Map.Entry<Long, Entry> entry : entries.entrySet()) {
+                remove(entry.getKey(), entry.getValue());
+            }
+            hand = null;
+        }
+    }
+}
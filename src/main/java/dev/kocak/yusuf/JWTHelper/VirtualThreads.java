@@ -0,0 +1,29 @@
+package dev.kocak.yusuf.JWTHelper;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+
+
+abstract class VirtualThreads {
+
+    // one virtual thread per task where the JDK has them, the common pool before that
+    static Executor executor() {
+        return Holder.EXECUTOR;
+    }
+
+    private static final class Holder {
+        private static final Executor EXECUTOR = create();
+
+        private static Executor create() {
+            try {
+                // looked up reflectively, so the library still builds and runs on older JDKs
+                Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+                return (Executor) factory.invoke(null);
+            } catch (ReflectiveOperationException | RuntimeException e) {
+                return ForkJoinPool.commonPool();
+            }
+        }
+    }
+}
@@ -7,6 +7,7 @@ import dev.kocak.yusuf.JWTHelper.model.IECDSAKeyProvider;
 import dev.kocak.yusuf.JWTHelper.model.IRSAKeyProvider;
 
 import java.security.interfaces.*;
+import java.util.concurrent.CompletableFuture;
 
 
 @SuppressWarnings("WeakerAccess")
@@ -182,6 +183,29 @@ public abstract class Algorithm {
     public abstract void verify(IDecodedJWT jwt) throws SignatureVerificationException;
 
     
+    public void verify(IDecodedJWT jwt, byte[] contentBytes, int contentOffset, int contentLength,
+                       byte[] signatureBytes) throws SignatureVerificationException {
+        if (!isValid(jwt, contentBytes, contentOffset, contentLength, signatureBytes)) {
+            throw new SignatureVerificationException(this);
+        }
+    }
+
+    // false only for a signature that doesn't match, problems with keys or providers still throw
+    public boolean isValid(IDecodedJWT jwt, byte[] contentBytes, int contentOffset, int contentLength,
+                           byte[] signatureBytes) throws SignatureVerificationException {
+        try {
+            verify(jwt);
+            return true;
+        } catch (SignatureVerificationException e) {
+            return false;
+        }
+    }
+
+    public CompletableFuture<Algorithm> forKeyIdAsync(String keyId) {
+        return CompletableFuture.completedFuture(this);
+    }
+
+    
     public byte[] sign(byte[] headerBytes, byte[] payloadBytes) throws SignatureGenerationException {
         // default implementation; keep around until sign(byte[]) method is removed
         byte[] contentBytes = new byte[headerBytes.length + 1 + payloadBytes.length];
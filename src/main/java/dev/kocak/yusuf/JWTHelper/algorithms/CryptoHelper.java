@@ -4,11 +4,18 @@ import javax.crypto.Mac;
 import javax.crypto.spec.SecretKeySpec;
 import java.nio.charset.StandardCharsets;
 import java.security.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
 
 class CryptoHelper {
 
     private static final byte JWT_PART_SEPARATOR = (byte) 46;
+    // a few idle instances are kept along with the key they were last initialized with, so batches
+    // grouped by key skip the init as well
+    private final ConcurrentMap<String, Pool<Mac>> macs = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Pool<Signature>> signatures = new ConcurrentHashMap<>();
 
     
 
@@ -37,6 +44,32 @@ class CryptoHelper {
     }
 
     
+    boolean verifySignatureFor(
+            String algorithm,
+            byte[] secretBytes,
+            byte[] contentBytes,
+            int contentOffset,
+            int contentLength,
+            byte[] signatureBytes
+    ) throws NoSuchAlgorithmException, InvalidKeyException {
+        Pool<Mac> pool = poolFor(macs, algorithm);
+        Warm<Mac> warm = pool.take(secretBytes);
+        if (warm == null) {
+            warm = new Warm<>(Mac.getInstance(algorithm));
+        }
+        final Mac mac = warm.instance;
+        if (warm.key != secretBytes) {
+            mac.init(new SecretKeySpec(secretBytes, algorithm));
+            warm.key = secretBytes;
+        }
+        mac.update(contentBytes, contentOffset, contentLength);
+        boolean valid = MessageDigest.isEqual(mac.doFinal(), signatureBytes);
+        // only handed back once it's done, a failure may have left it half way through
+        pool.give(warm);
+        return valid;
+    }
+
+    
     boolean verifySignatureFor(
             String algorithm,
             PublicKey publicKey,
@@ -65,6 +98,31 @@ class CryptoHelper {
     }
 
     
+    boolean verifySignatureFor(
+            String algorithm,
+            PublicKey publicKey,
+            byte[] contentBytes,
+            int contentOffset,
+            int contentLength,
+            byte[] signatureBytes
+    ) throws NoSuchAlgorithmException, InvalidKeyException, SignatureException {
+        Pool<Signature> pool = poolFor(signatures, algorithm);
+        Warm<Signature> warm = pool.take(publicKey);
+        if (warm == null) {
+            warm = new Warm<>(Signature.getInstance(algorithm));
+        }
+        final Signature s = warm.instance;
+        if (warm.key != publicKey) {
+            s.initVerify(publicKey);
+            warm.key = publicKey;
+        }
+        s.update(contentBytes, contentOffset, contentLength);
+        boolean valid = s.verify(signatureBytes);
+        pool.give(warm);
+        return valid;
+    }
+
+    
     byte[] createSignatureFor(
             String algorithm,
             PrivateKey privateKey,
@@ -113,4 +171,60 @@ class CryptoHelper {
         s.update(contentBytes);
         return s.sign();
     }
+
+    private static <T> Pool<T> poolFor(ConcurrentMap<String, Pool<T>> pools, String algorithm) {
+        Pool<T> pool = pools.get(algorithm);
+        if (pool == null) {
+            pools.putIfAbsent(algorithm, new Pool<>());
+            pool = pools.get(algorithm);
+        }
+        return pool;
+    }
+
+    private static final class Pool<T> {
+        private static final int SIZE =
+                Math.max(2, Integer.highestOneBit(Math.min(32, Runtime.getRuntime().availableProcessors() * 2)));
+
+        private final AtomicReferenceArray<Warm<T>> idle = new AtomicReferenceArray<>(SIZE);
+
+        Warm<T> take(Object key) {
+            int other = -1;
+            for (int i = 0; i < SIZE; i++) {
+                Warm<T> warm = idle.get(i);
+                if (warm == null) {
+                    continue;
+                }
+                if (warm.key == key && idle.compareAndSet(i, warm, null)) {
+                    return warm;
+                }
+                if (other < 0) {
+                    other = i;
+                }
+            }
+            if (other >= 0) {
+                Warm<T> warm = idle.get(other);
+                if (warm != null && idle.compareAndSet(other, warm, null)) {
+                    return warm;
+                }
+            }
+            return null;
+        }
+
+        void give(Warm<T> warm) {
+            for (int i = 0; i < SIZE; i++) {
+                if (idle.get(i) == null && idle.compareAndSet(i, null, warm)) {
+                    return;
+                }
+            }
+        }
+    }
+
+    private static final class Warm<T> {
+        private final T instance;
+        private Object key;
+
+        Warm(T instance) {
+            this.instance = instance;
+        }
+    }
 }
@@ -4,6 +4,7 @@ package dev.kocak.yusuf.JWTHelper.algorithms;
 
 import dev.kocak.yusuf.JWTHelper.exceptions.SignatureGenerationException;
 import dev.kocak.yusuf.JWTHelper.exceptions.SignatureVerificationException;
+import dev.kocak.yusuf.JWTHelper.model.IAsyncECDSAKeyProvider;
 import dev.kocak.yusuf.JWTHelper.model.IDecodedJWT;
 import dev.kocak.yusuf.JWTHelper.model.IECDSAKeyProvider;
 
@@ -14,12 +15,14 @@ import java.security.SignatureException;
 import java.security.interfaces.ECPrivateKey;
 import java.security.interfaces.ECPublicKey;
 import java.util.Base64;
+import java.util.concurrent.CompletableFuture;
 
 
 class ECDSAAlgorithm extends Algorithm {
 
     private final IECDSAKeyProvider keyProvider;
     private final CryptoHelper crypto;
+    private final KeyLookup<ECPublicKey> keyLookup = new KeyLookup<>();
     private final int ecNumberSize;
 
     //Visible for testing
@@ -60,6 +63,39 @@ class ECDSAAlgorithm extends Algorithm {
         }
     }
 
+    @Override
+    public boolean isValid(IDecodedJWT jwt, byte[] contentBytes, int contentOffset, int contentLength,
+                           byte[] signatureBytes) throws SignatureVerificationException {
+        try {
+            ECPublicKey publicKey = keyProvider.getPublicKeyById(jwt.getKeyId());
+            if (publicKey == null) {
+                throw new IllegalStateException("The given Public Key is null.");
+            }
+            validateSignatureStructure(signatureBytes, publicKey);
+            return crypto.verifySignatureFor(getDescription(), publicKey,
+                    contentBytes, contentOffset, contentLength, JOSEToDER(signatureBytes));
+        } catch (SignatureException e) {
+            return false;
+        } catch (NoSuchAlgorithmException | InvalidKeyException | IllegalStateException | IllegalArgumentException e) {
+            throw new SignatureVerificationException(this, e);
+        }
+    }
+
+    @Override
+    public CompletableFuture<Algorithm> forKeyIdAsync(String keyId) {
+        if (!(keyProvider instanceof IAsyncECDSAKeyProvider)) {
+            return super.forKeyIdAsync(keyId);
+        }
+        IAsyncECDSAKeyProvider provider = (IAsyncECDSAKeyProvider) keyProvider;
+        return keyLookup.get(keyId, provider::getPublicKeyByIdAsync).thenApply(publicKey -> {
+            if (publicKey == null) {
+                throw new IllegalStateException("The given Public Key is null.");
+            }
+            return new ECDSAAlgorithm(crypto, getName(), getDescription(), ecNumberSize,
+                    providerForKeys(publicKey, null));
+        });
+    }
+
     @Override
     public byte[] sign(byte[] headerBytes, byte[] payloadBytes) throws SignatureGenerationException {
         try {
@@ -58,6 +58,17 @@ class HMACAlgorithm extends Algorithm {
         }
     }
 
+    @Override
+    public boolean isValid(IDecodedJWT jwt, byte[] contentBytes, int contentOffset, int contentLength,
+                           byte[] signatureBytes) throws SignatureVerificationException {
+        try {
+            return crypto.verifySignatureFor(
+                    getDescription(), secret, contentBytes, contentOffset, contentLength, signatureBytes);
+        } catch (IllegalStateException | InvalidKeyException | NoSuchAlgorithmException | IllegalArgumentException e) {
+            throw new SignatureVerificationException(this, e);
+        }
+    }
+
     @Override
     public byte[] sign(byte[] headerBytes, byte[] payloadBytes) throws SignatureGenerationException {
         try {
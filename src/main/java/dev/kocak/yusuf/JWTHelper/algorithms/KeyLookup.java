@@ -0,0 +1,42 @@
+package dev.kocak.yusuf.JWTHelper.algorithms;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+
+// concurrent lookups of the same key id share one call to the provider
+final class KeyLookup<U> {
+
+    private final ConcurrentHashMap<String, CompletableFuture<U>> inFlight = new ConcurrentHashMap<>();
+
+    CompletableFuture<U> get(String keyId, Function<String, CompletableFuture<U>> loader) {
+        if (keyId == null) {
+            return loader.apply(null);
+        }
+        CompletableFuture<U> pending = inFlight.get(keyId);
+        if (pending != null) {
+            return pending;
+        }
+        CompletableFuture<U> created = new CompletableFuture<>();
+        pending = inFlight.putIfAbsent(keyId, created);
+        if (pending != null) {
+            return pending;
+        }
+        try {
+            loader.apply(keyId).whenComplete((key, e) -> {
+                // gone before anyone is told, so the next lookup asks the provider again
+                inFlight.remove(keyId, created);
+                if (e != null) {
+                    created.completeExceptionally(e);
+                } else {
+                    created.complete(key);
+                }
+            });
+        } catch (RuntimeException e) {
+            inFlight.remove(keyId, created);
+            created.completeExceptionally(e);
+        }
+        return created;
+    }
+}
@@ -26,6 +26,12 @@ class NoneAlgorithm extends Algorithm {
         }
     }
 
+    @Override
+    public boolean isValid(IDecodedJWT jwt, byte[] contentBytes, int contentOffset, int contentLength,
+                           byte[] signatureBytes) {
+        return signatureBytes.length == 0;
+    }
+
     @Override
     public byte[] sign(byte[] headerBytes, byte[] payloadBytes) throws SignatureGenerationException {
         return new byte[0];
@@ -3,6 +3,7 @@ package dev.kocak.yusuf.JWTHelper.algorithms;
 
 import dev.kocak.yusuf.JWTHelper.exceptions.SignatureGenerationException;
 import dev.kocak.yusuf.JWTHelper.exceptions.SignatureVerificationException;
+import dev.kocak.yusuf.JWTHelper.model.IAsyncRSAKeyProvider;
 import dev.kocak.yusuf.JWTHelper.model.IDecodedJWT;
 import dev.kocak.yusuf.JWTHelper.model.IRSAKeyProvider;
 
@@ -12,12 +13,14 @@ import java.security.SignatureException;
 import java.security.interfaces.RSAPrivateKey;
 import java.security.interfaces.RSAPublicKey;
 import java.util.Base64;
+import java.util.concurrent.CompletableFuture;
 
 
 class RSAAlgorithm extends Algorithm {
 
     private final IRSAKeyProvider keyProvider;
     private final CryptoHelper crypto;
+    private final KeyLookup<RSAPublicKey> keyLookup = new KeyLookup<>();
 
     //Visible for testing
     RSAAlgorithm(CryptoHelper crypto, String id, String algorithm, IRSAKeyProvider keyProvider)
@@ -53,6 +56,37 @@ class RSAAlgorithm extends Algorithm {
         }
     }
 
+    @Override
+    public boolean isValid(IDecodedJWT jwt, byte[] contentBytes, int contentOffset, int contentLength,
+                           byte[] signatureBytes) throws SignatureVerificationException {
+        try {
+            RSAPublicKey publicKey = keyProvider.getPublicKeyById(jwt.getKeyId());
+            if (publicKey == null) {
+                throw new IllegalStateException("The given Public Key is null.");
+            }
+            return crypto.verifySignatureFor(
+                    getDescription(), publicKey, contentBytes, contentOffset, contentLength, signatureBytes);
+        } catch (SignatureException e) {
+            return false;
+        } catch (NoSuchAlgorithmException | InvalidKeyException | IllegalArgumentException | IllegalStateException e) {
+            throw new SignatureVerificationException(this, e);
+        }
+    }
+
+    @Override
+    public CompletableFuture<Algorithm> forKeyIdAsync(String keyId) {
+        if (!(keyProvider instanceof IAsyncRSAKeyProvider)) {
+            return super.forKeyIdAsync(keyId);
+        }
+        IAsyncRSAKeyProvider provider = (IAsyncRSAKeyProvider) keyProvider;
+        return keyLookup.get(keyId, provider::getPublicKeyByIdAsync).thenApply(publicKey -> {
+            if (publicKey == null) {
+                throw new IllegalStateException("The given Public Key is null.");
+            }
+            return new RSAAlgorithm(crypto, getName(), getDescription(), providerForKeys(publicKey, null));
+        });
+    }
+
     @Override
     public byte[] sign(byte[] headerBytes, byte[] payloadBytes) throws SignatureGenerationException {
         try {
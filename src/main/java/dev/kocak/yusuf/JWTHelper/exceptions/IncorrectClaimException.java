@@ -2,6 +2,8 @@ package dev.kocak.yusuf.JWTHelper.exceptions;
 
 import dev.kocak.yusuf.JWTHelper.model.IClaim;
 
+import java.util.function.Supplier;
+
 
 public class IncorrectClaimException extends InvalidClaimException {
     private final String claimName;
@@ -15,6 +17,13 @@ public class IncorrectClaimException extends InvalidClaimException {
         this.IClaimValue = IClaim;
     }
 
+    public IncorrectClaimException(Supplier<String> message, String claimName, IClaim IClaim,
+                                   boolean writableStackTrace) {
+        super(message, writableStackTrace);
+        this.claimName = claimName;
+        this.IClaimValue = IClaim;
+    }
+
     
     public String getClaimName() {
         return claimName;
@@ -1,8 +1,14 @@
 package dev.kocak.yusuf.JWTHelper.exceptions;
 
+import java.util.function.Supplier;
+
 
 public class InvalidClaimException extends JWTVerificationException {
     public InvalidClaimException(String message) {
         super(message);
     }
+
+    protected InvalidClaimException(Supplier<String> message, boolean writableStackTrace) {
+        super(message, null, writableStackTrace);
+    }
 }
\ No newline at end of file
@@ -1,5 +1,6 @@
 package dev.kocak.yusuf.JWTHelper.exceptions;
 
+import java.util.function.Supplier;
 
 public class JWTDecodeException extends JWTVerificationException {
     public JWTDecodeException(String message) {
@@ -9,4 +10,8 @@ public class JWTDecodeException extends JWTVerificationException {
     public JWTDecodeException(String message, Throwable cause) {
         super(message, cause);
     }
+
+    public JWTDecodeException(Supplier<String> message, boolean writableStackTrace) {
+        super(message, null, writableStackTrace);
+    }
 }
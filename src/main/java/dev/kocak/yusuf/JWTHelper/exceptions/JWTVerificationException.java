@@ -1,12 +1,42 @@
 package dev.kocak.yusuf.JWTHelper.exceptions;
 
 
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.util.function.Supplier;
+
+
 public class JWTVerificationException extends RuntimeException {
+    private final transient Supplier<String> messageSupplier;
+    private volatile String formattedMessage;
+
     public JWTVerificationException(String message) {
         this(message, null);
     }
 
     public JWTVerificationException(String message, Throwable cause) {
         super(message, cause);
+        this.messageSupplier = null;
+    }
+
+    // the message is only formatted when someone asks for it, and no stack trace is captured unless writable
+    protected JWTVerificationException(Supplier<String> message, Throwable cause, boolean writableStackTrace) {
+        super(null, cause, true, writableStackTrace);
+        this.messageSupplier = message;
+    }
+
+    @Override
+    public String getMessage() {
+        String message = formattedMessage;
+        if (message == null && messageSupplier != null) {
+            message = messageSupplier.get();
+            formattedMessage = message;
+        }
+        return message != null ? message : super.getMessage();
+    }
+
+    private void writeObject(ObjectOutputStream out) throws IOException {
+        getMessage();
+        out.defaultWriteObject();
     }
 }
@@ -10,6 +10,11 @@ public class MissingClaimException extends InvalidClaimException {
         this.claimName = claimName;
     }
 
+    public MissingClaimException(String claimName, boolean writableStackTrace) {
+        super(() -> String.format("The Claim '%s' is not present in the JWT.", claimName), writableStackTrace);
+        this.claimName = claimName;
+    }
+
     
     public String getClaimName() {
         return claimName;
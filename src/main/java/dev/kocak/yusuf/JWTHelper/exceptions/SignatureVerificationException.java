@@ -12,4 +12,9 @@ public class SignatureVerificationException extends JWTVerificationException {
     public SignatureVerificationException(Algorithm algorithm, Throwable cause) {
         super("The Token's Signature resulted invalid when verified using the Algorithm: " + algorithm, cause);
     }
+
+    public SignatureVerificationException(Algorithm algorithm, boolean writableStackTrace) {
+        super(() -> "The Token's Signature resulted invalid when verified using the Algorithm: " + algorithm, null,
+                writableStackTrace);
+    }
 }
@@ -1,6 +1,7 @@
 package dev.kocak.yusuf.JWTHelper.exceptions;
 
 import java.time.Instant;
+import java.util.function.Supplier;
 
 
 public class TokenExpiredException extends JWTVerificationException {
@@ -14,6 +15,11 @@ public class TokenExpiredException extends JWTVerificationException {
         this.expiredOn = expiredOn;
     }
 
+    public TokenExpiredException(Supplier<String> message, Instant expiredOn, boolean writableStackTrace) {
+        super(message, null, writableStackTrace);
+        this.expiredOn = expiredOn;
+    }
+
     public Instant getExpiredOn() {
         return expiredOn;
     }
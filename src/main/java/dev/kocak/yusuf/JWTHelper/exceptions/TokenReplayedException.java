@@ -0,0 +1,14 @@
+package dev.kocak.yusuf.JWTHelper.exceptions;
+
+import java.util.function.Supplier;
+
+
+public class TokenReplayedException extends JWTVerificationException {
+    public TokenReplayedException(String message) {
+        super(message);
+    }
+
+    public TokenReplayedException(Supplier<String> message, boolean writableStackTrace) {
+        super(message, null, writableStackTrace);
+    }
+}
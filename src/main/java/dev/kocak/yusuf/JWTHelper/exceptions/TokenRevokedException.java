@@ -0,0 +1,14 @@
+package dev.kocak.yusuf.JWTHelper.exceptions;
+
+import java.util.function.Supplier;
+
+
+public class TokenRevokedException extends JWTVerificationException {
+    public TokenRevokedException(String message) {
+        super(message);
+    }
+
+    public TokenRevokedException(Supplier<String> message, boolean writableStackTrace) {
+        super(message, null, writableStackTrace);
+    }
+}
@@ -3,6 +3,8 @@ package dev.kocak.yusuf.JWTHelper.impl;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.node.TextNode;
+import dev.kocak.yusuf.JWTHelper.HeaderParams;
 import dev.kocak.yusuf.JWTHelper.model.IClaim;
 import dev.kocak.yusuf.JWTHelper.model.IHeader;
 
@@ -11,7 +13,7 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 
-import static dev.kocak.yusuf.JWTHelper.impl.JsonNodeIClaim.extractClaim;
+import static dev.kocak.yusuf.JWTHelper.impl.JsonNodeIClaim.claimFromNode;
 
 
 class BasicHeader implements IHeader, Serializable {
@@ -40,10 +42,6 @@ class BasicHeader implements IHeader, Serializable {
         this.objectReader = objectReader;
     }
 
-    Map<String, JsonNode> getTree() {
-        return tree;
-    }
-
     @Override
     public String getAlgorithm() {
         return algorithm;
@@ -66,6 +64,25 @@ class BasicHeader implements IHeader, Serializable {
 
     @Override
     public IClaim getHeaderClaim(String name) {
-        return extractClaim(name, tree, objectReader);
+        JsonNode node = tree.get(name);
+        if (node == null && name.length() == 3) {
+            node = paramNode(name);
+        }
+        return claimFromNode(node, objectReader);
+    }
+
+    // string valued params are not kept in the tree, so rebuild their node on demand
+    private JsonNode paramNode(String name) {
+        String value = null;
+        if (name.equals(HeaderParams.ALGORITHM)) {
+            value = algorithm;
+        } else if (name.equals(HeaderParams.TYPE)) {
+            value = type;
+        } else if (name.equals(HeaderParams.CONTENT_TYPE)) {
+            value = contentType;
+        } else if (name.equals(HeaderParams.KEY_ID)) {
+            value = keyId;
+        }
+        return value != null ? TextNode.valueOf(value) : null;
     }
 }
@@ -0,0 +1,13 @@
+package dev.kocak.yusuf.JWTHelper.impl;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import dev.kocak.yusuf.JWTHelper.model.IClaim;
+
+
+// the JSON behind claims read by this package, so checks can look into it without mapping it first
+public abstract class ClaimNodes {
+
+    public static JsonNode nodeOf(IClaim claim) {
+        return claim instanceof JsonNodeIClaim ? ((JsonNodeIClaim) claim).node() : null;
+    }
+}
@@ -0,0 +1,270 @@
+package dev.kocak.yusuf.JWTHelper.impl;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectReader;
+import dev.kocak.yusuf.JWTHelper.RegisteredClaims;
+import dev.kocak.yusuf.JWTHelper.exceptions.JWTDecodeException;
+import dev.kocak.yusuf.JWTHelper.model.IClaim;
+import dev.kocak.yusuf.JWTHelper.model.IPayload;
+
+import java.io.IOException;
+import java.io.Serializable;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.*;
+
+import static dev.kocak.yusuf.JWTHelper.impl.JsonNodeIClaim.claimFromNode;
+
+// keeps only the JSON bytes and the offsets of the top level members, claims are parsed when read
+class CompactPayload implements IPayload, Serializable {
+
+    private static final long serialVersionUID = 4632198126203557916L;
+
+    // keyStart, keyEnd, valueStart, valueEnd for every member, keys without their quotes
+    private static final int SLOTS = 4;
+
+    private final byte[] json;
+    private final int[] index;
+    private final ObjectReader objectReader;
+
+    CompactPayload(byte[] json, ObjectReader objectReader) throws JWTDecodeException {
+        this.json = json;
+        this.index = buildIndex(json);
+        this.objectReader = objectReader;
+    }
+
+    byte[] getJson() {
+        return json;
+    }
+
+    @Override
+    public String getIssuer() {
+        return getString(RegisteredClaims.ISSUER);
+    }
+
+    @Override
+    public String getSubject() {
+        return getString(RegisteredClaims.SUBJECT);
+    }
+
+    @Override
+    public List<String> getAudience() {
+        int member = find(RegisteredClaims.AUDIENCE);
+        if (member < 0) {
+            return null;
+        }
+        List<String> audience = PayloadDeserializer.getStringOrArray(readNode(member), objectReader);
+        return audience != null ? Collections.unmodifiableList(audience) : null;
+    }
+
+    @Override
+    public Date getExpiresAt() {
+        Instant instant = getExpiresAtAsInstant();
+        return instant != null ? Date.from(instant) : null;
+    }
+
+    @Override
+    public Instant getExpiresAtAsInstant() {
+        return getInstant(RegisteredClaims.EXPIRES_AT);
+    }
+
+    @Override
+    public Date getNotBefore() {
+        Instant instant = getNotBeforeAsInstant();
+        return instant != null ? Date.from(instant) : null;
+    }
+
+    @Override
+    public Instant getNotBeforeAsInstant() {
+        return getInstant(RegisteredClaims.NOT_BEFORE);
+    }
+
+    @Override
+    public Date getIssuedAt() {
+        Instant instant = getIssuedAtAsInstant();
+        return instant != null ? Date.from(instant) : null;
+    }
+
+    @Override
+    public Instant getIssuedAtAsInstant() {
+        return getInstant(RegisteredClaims.ISSUED_AT);
+    }
+
+    @Override
+    public String getId() {
+        return getString(RegisteredClaims.JWT_ID);
+    }
+
+    @Override
+    public IClaim getClaim(String name) {
+        int member = find(name);
+        return claimFromNode(member < 0 ? null : readNode(member), objectReader);
+    }
+
+    @Override
+    public Map<String, IClaim> getClaims() {
+        // deliberately not cached, keeping it around would defeat the point of this payload
+        Map<String, IClaim> claims = new LinkedHashMap<>();
+        for (int member = 0; member < index.length / SLOTS; member++) {
+            claims.put(keyAt(member), claimFromNode(readNode(member), objectReader));
+        }
+        return Collections.unmodifiableMap(claims);
+    }
+
+    private String getString(String name) {
+        int member = find(name);
+        if (member < 0) {
+            return null;
+        }
+        int start = index[member * SLOTS + 2];
+        int end = index[member * SLOTS + 3];
+        if (json[start] == '"' && indexOf(json, (byte) '\\', start, end) < 0) {
+            return new String(json, start + 1, end - start - 2, StandardCharsets.UTF_8);
+        }
+        return PayloadDeserializer.getString(readNode(member));
+    }
+
+    private Instant getInstant(String name) {
+        int member = find(name);
+        if (member < 0) {
+            return null;
+        }
+        int start = index[member * SLOTS + 2];
+        int end = index[member * SLOTS + 3];
+        if (end - start <= 18 && isDigits(start, end)) {
+            long seconds = 0;
+            for (int i = start; i < end; i++) {
+                seconds = seconds * 10 + (json[i] - '0');
+            }
+            return Instant.ofEpochSecond(seconds);
+        }
+        return PayloadDeserializer.getInstantFromSeconds(readNode(member), name);
+    }
+
+    private boolean isDigits(int start, int end) {
+        for (int i = start; i < end; i++) {
+            if (json[i] < '0' || json[i] > '9') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private JsonNode readNode(int member) throws JWTDecodeException {
+        int start = index[member * SLOTS + 2];
+        int end = index[member * SLOTS + 3];
+        try (JsonParser parser = objectReader.getFactory().createParser(json, start, end - start)) {
+            return objectReader.readTree(parser);
+        } catch (IOException e) {
+            throw new JWTDecodeException("Couldn't read the Claim value from the Payload.", e);
+        }
+    }
+
+    private int find(String name) {
+        for (int member = index.length / SLOTS - 1; member >= 0; member--) {
+            if (keyEquals(member, name)) {
+                return member;
+            }
+        }
+        return -1;
+    }
+
+    private boolean keyEquals(int member, String name) {
+        int start = index[member * SLOTS];
+        int end = index[member * SLOTS + 1];
+        if (end - start != name.length()) {
+            return !isPlainAscii(start, end) && keyAt(member).equals(name);
+        }
+        for (int i = 0; i < name.length(); i++) {
+            byte b = json[start + i];
+            if (b != name.charAt(i)) {
+                return !isPlainAscii(start, end) && keyAt(member).equals(name);
+            }
+        }
+        return true;
+    }
+
+    private boolean isPlainAscii(int start, int end) {
+        for (int i = start; i < end; i++) {
+            if (json[i] < 0 || json[i] == '\\') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private String keyAt(int member) {
+        int start = index[member * SLOTS];
+        int end = index[member * SLOTS + 1];
+        if (indexOf(json, (byte) '\\', start, end) < 0) {
+            return new String(json, start, end - start, StandardCharsets.UTF_8);
+        }
+        try (JsonParser parser = objectReader.getFactory().createParser(json, start - 1, end - start + 2)) {
+            parser.nextToken();
+            return parser.getText();
+        } catch (IOException e) {
+            throw new JWTDecodeException("Couldn't read the Claim name from the Payload.", e);
+        }
+    }
+
+    private static int indexOf(byte[] json, byte b, int start, int end) {
+        for (int i = start; i < end; i++) {
+            if (json[i] == b) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static int[] buildIndex(byte[] json) throws JWTDecodeException {
+        int[] index = new int[8 * SLOTS];
+        int members = 0;
+        int i = JsonScanner.skipWhitespace(json, 0, json.length);
+        if (i >= json.length || json[i] != '{') {
+            throw malformed();
+        }
+        i = JsonScanner.skipWhitespace(json, i + 1, json.length);
+        if (i < json.length && json[i] == '}') {
+            return new int[0];
+        }
+        while (true) {
+            if (i >= json.length || json[i] != '"') {
+                throw malformed();
+            }
+            int keyEnd = JsonScanner.skipString(json, i, json.length) - 1;
+            int keyStart = i + 1;
+            i = keyEnd < 0 ? -1 : JsonScanner.skipWhitespace(json, keyEnd + 1, json.length);
+            if (i < 0 || i >= json.length || json[i] != ':') {
+                throw malformed();
+            }
+            int valueStart = JsonScanner.skipWhitespace(json, i + 1, json.length);
+            int valueEnd = JsonScanner.skipValue(json, valueStart, json.length);
+            if (valueEnd < 0) {
+                throw malformed();
+            }
+
+            if (members * SLOTS == index.length) {
+                index = Arrays.copyOf(index, index.length * 2);
+            }
+            index[members * SLOTS] = keyStart;
+            index[members * SLOTS + 1] = keyEnd;
+            index[members * SLOTS + 2] = valueStart;
+            index[members * SLOTS + 3] = valueEnd;
+            members++;
+
+            i = JsonScanner.skipWhitespace(json, valueEnd, json.length);
+            if (i < json.length && json[i] == ',') {
+                i = JsonScanner.skipWhitespace(json, i + 1, json.length);
+            } else if (i < json.length && json[i] == '}') {
+                return Arrays.copyOf(index, members * SLOTS);
+            } else {
+                throw malformed();
+            }
+        }
+    }
+
+    private static JWTDecodeException malformed() {
+        return new JWTDecodeException("The Payload doesn't have a valid JSON format.");
+    }
+}
@@ -1,15 +1,15 @@
 package dev.kocak.yusuf.JWTHelper.impl;
 
 import dev.kocak.yusuf.JWTHelper.HeaderParams;
-import dev.kocak.yusuf.JWTHelper.exceptions.JWTDecodeException;
 import com.fasterxml.jackson.core.JsonParser;
-import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.DeserializationContext;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectReader;
 import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
 
 import java.io.IOException;
+import java.util.LinkedHashMap;
 import java.util.Map;
 
 class HeaderDeserializer extends StdDeserializer<BasicHeader> {
@@ -28,21 +28,55 @@ class HeaderDeserializer extends StdDeserializer<BasicHeader> {
 
     @Override
     public BasicHeader deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
-        Map<String, JsonNode> tree = p.getCodec().readValue(p, new TypeReference<Map<String, JsonNode>>() {
-        });
-        if (tree == null) {
-            throw new JWTDecodeException("Parsing the Header's JSON resulted on a Null map");
+        JsonToken token = p.currentToken();
+        if (token == JsonToken.START_OBJECT) {
+            token = p.nextToken();
+        } else if (token != JsonToken.FIELD_NAME && token != JsonToken.END_OBJECT) {
+            return (BasicHeader) ctxt.handleUnexpectedToken(BasicHeader.class, p);
+        }
+
+        String algorithm = null;
+        String type = null;
+        String contentType = null;
+        String keyId = null;
+        Map<String, JsonNode> tree = new LinkedHashMap<>();
+
+        for (; token == JsonToken.FIELD_NAME; token = p.nextToken()) {
+            String name = p.currentName();
+            JsonToken value = p.nextToken();
+            if (name.length() != 3) {
+                tree.put(name, ctxt.readTree(p));
+            } else if (name.equals(HeaderParams.ALGORITHM)) {
+                algorithm = readString(p, ctxt, value, name, tree);
+            } else if (name.equals(HeaderParams.TYPE)) {
+                type = readString(p, ctxt, value, name, tree);
+            } else if (name.equals(HeaderParams.CONTENT_TYPE)) {
+                contentType = readString(p, ctxt, value, name, tree);
+            } else if (name.equals(HeaderParams.KEY_ID)) {
+                keyId = readString(p, ctxt, value, name, tree);
+            } else {
+                tree.put(name, ctxt.readTree(p));
+            }
+        }
+        if (token != JsonToken.END_OBJECT) {
+            return (BasicHeader) ctxt.handleUnexpectedToken(BasicHeader.class, p);
         }
 
-        String algorithm = getString(tree, HeaderParams.ALGORITHM);
-        String type = getString(tree, HeaderParams.TYPE);
-        String contentType = getString(tree, HeaderParams.CONTENT_TYPE);
-        String keyId = getString(tree, HeaderParams.KEY_ID);
         return new BasicHeader(algorithm, type, contentType, keyId, tree, objectReader);
     }
 
-    String getString(Map<String, JsonNode> tree, String claimName) {
-        JsonNode node = tree.get(claimName);
+    private String readString(JsonParser p, DeserializationContext ctxt, JsonToken value, String name,
+                              Map<String, JsonNode> tree) throws IOException {
+        if (value == JsonToken.VALUE_STRING) {
+            tree.remove(name);
+            return p.getText();
+        }
+        JsonNode node = ctxt.readTree(p);
+        tree.put(name, node);
+        return getString(node);
+    }
+
+    String getString(JsonNode node) {
         if (node == null || node.isNull()) {
             return null;
         }
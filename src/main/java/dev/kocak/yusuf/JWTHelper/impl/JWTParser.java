@@ -2,29 +2,84 @@ package dev.kocak.yusuf.JWTHelper.impl;
 
 
 import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.JsonFactory;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.ObjectReader;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.databind.module.SimpleModule;
+import dev.kocak.yusuf.JWTHelper.RegisteredClaims;
 import dev.kocak.yusuf.JWTHelper.exceptions.JWTDecodeException;
 import dev.kocak.yusuf.JWTHelper.model.IHeader;
 import dev.kocak.yusuf.JWTHelper.model.IJWTPartsParser;
 import dev.kocak.yusuf.JWTHelper.model.IPayload;
 
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
 
+@SuppressWarnings("WeakerAccess")
 public class JWTParser implements IJWTPartsParser {
     private final ObjectReader payloadReader;
     private final ObjectReader headerReader;
+    private final ObjectReader treeReader;
+    private final JWTParser fullParser;
+    private final Set<String> projection;
 
     public JWTParser() {
-        this(getDefaultObjectMapper());
+        this(getDefaultObjectMapper(), false);
     }
 
-    JWTParser(ObjectMapper mapper) {
+    
+    public JWTParser(JsonFactory factory) {
+        this(configure(new ObjectMapper(factory)), false);
+    }
+
+    
+    public JWTParser(ObjectMapper mapper) {
+        this(mapper, true);
+    }
+
+    private JWTParser(ObjectMapper mapper, boolean copy) {
+        // never register our deserializers on a mapper the caller keeps using
+        if (copy) {
+            mapper = mapper.copy();
+        }
         addDeserializers(mapper);
         this.payloadReader = mapper.readerFor(IPayload.class);
         this.headerReader = mapper.readerFor(IHeader.class);
+        this.treeReader = mapper.reader();
+        this.fullParser = null;
+        this.projection = null;
+    }
+
+    private JWTParser(JWTParser fullParser, Set<String> projection) {
+        this.payloadReader = fullParser.payloadReader.withAttribute(PayloadDeserializer.PROJECTION, projection);
+        this.headerReader = fullParser.headerReader;
+        this.treeReader = fullParser.treeReader;
+        this.fullParser = fullParser;
+        this.projection = projection;
+    }
+
+    
+    public static JWTParser getDefault() {
+        return DefaultHolder.INSTANCE;
+    }
+
+    @Override
+    public JWTParser withProjection(Collection<String> claimNames) {
+        if (claimNames == null) {
+            throw new IllegalArgumentException("The Claim names cannot be null.");
+        }
+        Set<String> projection = new HashSet<>(claimNames);
+        Collections.addAll(projection, RegisteredClaims.ISSUER, RegisteredClaims.SUBJECT, RegisteredClaims.AUDIENCE,
+                RegisteredClaims.EXPIRES_AT, RegisteredClaims.NOT_BEFORE, RegisteredClaims.ISSUED_AT,
+                RegisteredClaims.JWT_ID);
+        JWTParser full = fullParser != null ? fullParser : this;
+        return new JWTParser(full, Collections.unmodifiableSet(projection));
     }
 
     @Override
@@ -33,11 +88,71 @@ public class JWTParser implements IJWTPartsParser {
             throw decodeException();
         }
 
+        IPayload payload;
         try {
-            return payloadReader.readValue(json);
+            payload = payloadReader.readValue(json);
         } catch (IOException e) {
             throw decodeException(json);
         }
+        return fullParser == null ? payload
+                : new ProjectedPayload(payload, projection, json.getBytes(StandardCharsets.UTF_8), fullParser);
+    }
+
+    @Override
+    public IPayload parsePayload(byte[] json, int offset, int length) throws JWTDecodeException {
+        if (json == null) {
+            throw decodeException();
+        }
+
+        IPayload payload;
+        try {
+            payload = payloadReader.readValue(json, offset, length);
+        } catch (IOException e) {
+            throw decodeException(new String(json, offset, length, StandardCharsets.UTF_8));
+        }
+        // the caller may reuse the buffer, so keep a copy around for claims outside the projection
+        return fullParser == null ? payload : new ProjectedPayload(payload, projection,
+                Arrays.copyOfRange(json, offset, offset + length), fullParser);
+    }
+
+    
+    public IPayload parseCompactPayload(byte[] json, int offset, int length) throws JWTDecodeException {
+        if (json == null) {
+            throw decodeException();
+        }
+
+        byte[] bytes = offset == 0 && length == json.length ? json : Arrays.copyOfRange(json, offset, offset + length);
+        try {
+            return new CompactPayload(bytes, treeReader);
+        } catch (JWTDecodeException e) {
+            throw decodeException(new String(json, offset, length, StandardCharsets.UTF_8));
+        }
+    }
+
+    // a top-level string member read without parsing the rest, escaped keys aren't recognized
+    public String peekString(byte[] json, int offset, int length, String name) throws JWTDecodeException {
+        if (json == null || name == null) {
+            throw decodeException();
+        }
+        int end = offset + length;
+        int value = JsonScanner.lastMember(json, offset, end, name.getBytes(StandardCharsets.UTF_8));
+        if (value == -2) {
+            throw decodeException(new String(json, offset, length, StandardCharsets.UTF_8));
+        }
+        if (value < 0 || json[value] != '"') {
+            return null;
+        }
+        int valueEnd = JsonScanner.skipString(json, value, end);
+        for (int i = value + 1; i < valueEnd - 1; i++) {
+            if (json[i] == '\\') {
+                try {
+                    return treeReader.readTree(json, value, valueEnd - value).asText();
+                } catch (IOException e) {
+                    throw decodeException(new String(json, offset, length, StandardCharsets.UTF_8));
+                }
+            }
+        }
+        return new String(json, value + 1, valueEnd - value - 2, StandardCharsets.UTF_8);
     }
 
     @Override
@@ -53,6 +168,19 @@ public class JWTParser implements IJWTPartsParser {
         }
     }
 
+    @Override
+    public IHeader parseHeader(byte[] json, int offset, int length) throws JWTDecodeException {
+        if (json == null) {
+            throw decodeException();
+        }
+
+        try {
+            return headerReader.readValue(json, offset, length);
+        } catch (IOException e) {
+            throw decodeException(new String(json, offset, length, StandardCharsets.UTF_8));
+        }
+    }
+
     private void addDeserializers(ObjectMapper mapper) {
         SimpleModule module = new SimpleModule();
         ObjectReader reader = mapper.reader();
@@ -62,7 +190,10 @@ public class JWTParser implements IJWTPartsParser {
     }
 
     static ObjectMapper getDefaultObjectMapper() {
-        ObjectMapper mapper = new ObjectMapper();
+        return configure(new ObjectMapper());
+    }
+
+    private static ObjectMapper configure(ObjectMapper mapper) {
         mapper.disable(SerializationFeature.FAIL_ON_EMPTY_BEANS);
         mapper.setSerializationInclusion(JsonInclude.Include.NON_EMPTY);
         return mapper;
@@ -75,4 +206,8 @@ public class JWTParser implements IJWTPartsParser {
     private static JWTDecodeException decodeException(String json) {
         return new JWTDecodeException(String.format("The string '%s' doesn't have a valid JSON format.", json));
     }
+
+    private static final class DefaultHolder {
+        private static final JWTParser INSTANCE = new JWTParser();
+    }
 }
@@ -0,0 +1,487 @@
+package dev.kocak.yusuf.JWTHelper.impl;
+
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import dev.kocak.yusuf.JWTHelper.HeaderParams;
+import dev.kocak.yusuf.JWTHelper.RegisteredClaims;
+import dev.kocak.yusuf.JWTHelper.exceptions.JWTDecodeException;
+import dev.kocak.yusuf.JWTHelper.model.IHeader;
+import dev.kocak.yusuf.JWTHelper.model.IJWTPartsParser;
+import dev.kocak.yusuf.JWTHelper.model.IPayload;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.*;
+
+// reads headers and payloads straight from their bytes, only nested objects and arrays are handed to Jackson
+@SuppressWarnings("WeakerAccess")
+public class JWTPartsReader implements IJWTPartsParser {
+
+    private static final int MAX_INLINE_DIGITS = 18;
+
+    private final ObjectReader objectReader;
+    private final JsonNodeFactory nodeFactory;
+
+    public JWTPartsReader() {
+        this(JWTParser.getDefaultObjectMapper());
+    }
+
+
+    public JWTPartsReader(ObjectMapper mapper) {
+        if (mapper == null) {
+            throw new IllegalArgumentException("The ObjectMapper cannot be null.");
+        }
+        this.objectReader = mapper.reader();
+        this.nodeFactory = mapper.getNodeFactory();
+    }
+
+    @Override
+    public IPayload parsePayload(String json) throws JWTDecodeException {
+        if (json == null) {
+            throw decodeException(null);
+        }
+        byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+        return parsePayload(bytes, 0, bytes.length);
+    }
+
+    @Override
+    public IPayload parsePayload(byte[] json, int offset, int length) throws JWTDecodeException {
+        if (json == null) {
+            throw decodeException(null);
+        }
+        return new Cursor(json, offset, offset + length).readPayload();
+    }
+
+    @Override
+    public IHeader parseHeader(String json) throws JWTDecodeException {
+        if (json == null) {
+            throw decodeException(null);
+        }
+        byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+        return parseHeader(bytes, 0, bytes.length);
+    }
+
+    @Override
+    public IHeader parseHeader(byte[] json, int offset, int length) throws JWTDecodeException {
+        if (json == null) {
+            throw decodeException(null);
+        }
+        return new Cursor(json, offset, offset + length).readHeader();
+    }
+
+    private static JWTDecodeException decodeException(String json) {
+        return new JWTDecodeException(String.format("The string '%s' doesn't have a valid JSON format.", json));
+    }
+
+    private final class Cursor {
+        private final byte[] json;
+        private final int start;
+        private final int end;
+        private int pos;
+
+        private Cursor(byte[] json, int start, int end) {
+            this.json = json;
+            this.start = start;
+            this.end = end;
+            this.pos = start;
+        }
+
+        private IPayload readPayload() throws JWTDecodeException {
+            String issuer = null;
+            String subject = null;
+            List<String> audience = null;
+            boolean singleAudience = false;
+            Instant expiresAt = null;
+            Instant notBefore = null;
+            Instant issuedAt = null;
+            String jwtId = null;
+            Map<String, JsonNode> tree = new LinkedHashMap<>();
+
+            // same rules as PayloadDeserializer
+            for (String name = firstName(); name != null; name = nextName()) {
+                if (name.length() != 3) {
+                    tree.put(name, readValue());
+                } else if (name.equals(RegisteredClaims.ISSUER)) {
+                    issuer = readString(name, tree);
+                } else if (name.equals(RegisteredClaims.SUBJECT)) {
+                    subject = readString(name, tree);
+                } else if (name.equals(RegisteredClaims.JWT_ID)) {
+                    jwtId = readString(name, tree);
+                } else if (name.equals(RegisteredClaims.AUDIENCE)) {
+                    singleAudience = peek() == '"';
+                    if (singleAudience) {
+                        String text = readString(name, tree);
+                        audience = text.isEmpty() ? Collections.<String>emptyList() : Collections.singletonList(text);
+                    } else {
+                        audience = readAudience(name, tree);
+                    }
+                } else if (name.equals(RegisteredClaims.EXPIRES_AT)) {
+                    expiresAt = readInstant(name, tree);
+                } else if (name.equals(RegisteredClaims.NOT_BEFORE)) {
+                    notBefore = readInstant(name, tree);
+                } else if (name.equals(RegisteredClaims.ISSUED_AT)) {
+                    issuedAt = readInstant(name, tree);
+                } else {
+                    tree.put(name, readValue());
+                }
+            }
+
+            return new PayloadImpl(issuer, subject, audience, singleAudience, expiresAt, notBefore, issuedAt, jwtId,
+                    tree, objectReader);
+        }
+
+        private IHeader readHeader() throws JWTDecodeException {
+            String algorithm = null;
+            String type = null;
+            String contentType = null;
+            String keyId = null;
+            Map<String, JsonNode> tree = new LinkedHashMap<>();
+
+            for (String name = firstName(); name != null; name = nextName()) {
+                if (name.length() != 3) {
+                    tree.put(name, readValue());
+                } else if (name.equals(HeaderParams.ALGORITHM)) {
+                    algorithm = readString(name, tree);
+                } else if (name.equals(HeaderParams.TYPE)) {
+                    type = readString(name, tree);
+                } else if (name.equals(HeaderParams.CONTENT_TYPE)) {
+                    contentType = readString(name, tree);
+                } else if (name.equals(HeaderParams.KEY_ID)) {
+                    keyId = readString(name, tree);
+                } else {
+                    tree.put(name, readValue());
+                }
+            }
+
+            return new BasicHeader(algorithm, type, contentType, keyId, tree, objectReader);
+        }
+
+        private String firstName() throws JWTDecodeException {
+            expect('{');
+            if (peek() == '}') {
+                pos++;
+                return null;
+            }
+            return memberName();
+        }
+
+        private String nextName() throws JWTDecodeException {
+            int c = peek();
+            pos++;
+            if (c == '}') {
+                return null;
+            }
+            if (c != ',') {
+                throw malformed();
+            }
+            return memberName();
+        }
+
+        private String memberName() throws JWTDecodeException {
+            if (peek() != '"') {
+                throw malformed();
+            }
+            String name = readText();
+            expect(':');
+            return name;
+        }
+
+        private String readString(String name, Map<String, JsonNode> tree) throws JWTDecodeException {
+            if (peek() == '"') {
+                tree.remove(name);
+                return readText();
+            }
+            JsonNode node = readValue();
+            tree.put(name, node);
+            return PayloadDeserializer.getString(node);
+        }
+
+        private Instant readInstant(String name, Map<String, JsonNode> tree) throws JWTDecodeException {
+            JsonNode node = readValue();
+            if (node.isInt() || node.isLong()) {
+                tree.remove(name);
+                return Instant.ofEpochSecond(node.longValue());
+            }
+            tree.put(name, node);
+            return PayloadDeserializer.getInstantFromSeconds(node, name);
+        }
+
+        private List<String> readAudience(String name, Map<String, JsonNode> tree) throws JWTDecodeException {
+            JsonNode node = readValue();
+            if (node.isArray()) {
+                List<String> list = new ArrayList<>(node.size());
+                for (JsonNode item : node) {
+                    if (!item.isTextual()) {
+                        list = null;
+                        break;
+                    }
+                    list.add(item.textValue());
+                }
+                if (list != null) {
+                    tree.remove(name);
+                    return list;
+                }
+            }
+            tree.put(name, node);
+            return PayloadDeserializer.getStringOrArray(node, objectReader);
+        }
+
+        private JsonNode readValue() throws JWTDecodeException {
+            int c = peek();
+            switch (c) {
+                case '"':
+                    return nodeFactory.textNode(readText());
+                case 't':
+                    readLiteral("true");
+                    return nodeFactory.booleanNode(true);
+                case 'f':
+                    readLiteral("false");
+                    return nodeFactory.booleanNode(false);
+                case 'n':
+                    readLiteral("null");
+                    return nodeFactory.nullNode();
+                case '[':
+                    return readArray();
+                case '{':
+                    return readWithJackson();
+                default:
+                    if (c == '-' || (c >= '0' && c <= '9')) {
+                        return readNumber();
+                    }
+                    throw malformed();
+            }
+        }
+
+        private JsonNode readArray() throws JWTDecodeException {
+            int arrayStart = pos++;
+            ArrayNode array = nodeFactory.arrayNode();
+            if (peek() == ']') {
+                pos++;
+                return array;
+            }
+            while (true) {
+                int c = peek();
+                if (c == '[' || c == '{') {
+                    pos = arrayStart;
+                    return readWithJackson();
+                }
+                array.add(readValue());
+                c = peek();
+                pos++;
+                if (c == ']') {
+                    return array;
+                }
+                if (c != ',') {
+                    throw malformed();
+                }
+            }
+        }
+
+        private JsonNode readNumber() throws JWTDecodeException {
+            int numberStart = pos;
+            boolean negative = json[pos] == '-';
+            if (negative) {
+                pos++;
+            }
+            int digitsStart = pos;
+            while (pos < end && json[pos] >= '0' && json[pos] <= '9') {
+                pos++;
+            }
+            int digits = pos - digitsStart;
+            if (digits == 0 || (digits > 1 && json[digitsStart] == '0')) {
+                throw malformed();
+            }
+            boolean integral = pos == end || (json[pos] != '.' && json[pos] != 'e' && json[pos] != 'E');
+            if (!integral || digits > MAX_INLINE_DIGITS) {
+                pos = numberStart;
+                return readWithJackson();
+            }
+
+            long value = 0;
+            for (int i = digitsStart; i < pos; i++) {
+                value = value * 10 + (json[i] - '0');
+            }
+            if (negative) {
+                value = -value;
+            }
+            return value == (int) value ? nodeFactory.numberNode((int) value) : nodeFactory.numberNode(value);
+        }
+
+        private JsonNode readWithJackson() throws JWTDecodeException {
+            int valueEnd = JsonScanner.skipValue(json, pos, end);
+            if (valueEnd < 0) {
+                throw malformed();
+            }
+            try (JsonParser parser = objectReader.getFactory().createParser(json, pos, valueEnd - pos)) {
+                JsonNode node = objectReader.readTree(parser);
+                if (node == null || parser.nextToken() != null) {
+                    throw malformed();
+                }
+                pos = valueEnd;
+                return node;
+            } catch (IOException e) {
+                throw malformed();
+            }
+        }
+
+        private String readText() throws JWTDecodeException {
+            int textStart = ++pos;
+            boolean ascii = true;
+            while (pos < end) {
+                byte b = json[pos];
+                if (b == '"') {
+                    pos++;
+                    return ascii ? new String(json, textStart, pos - 1 - textStart, StandardCharsets.US_ASCII)
+                            : utf8(textStart, pos - 1);
+                }
+                if (b == '\\') {
+                    return readEscapedText(textStart);
+                }
+                if (b >= 0 && b < 0x20) {
+                    throw malformed();
+                }
+                ascii &= b >= 0;
+                pos++;
+            }
+            throw malformed();
+        }
+
+        private String readEscapedText(int textStart) throws JWTDecodeException {
+            StringBuilder text = new StringBuilder(pos - textStart + 16);
+            int run = textStart;
+            while (pos < end) {
+                byte b = json[pos];
+                if (b == '"' || b == '\\') {
+                    text.append(utf8(run, pos));
+                    if (b == '"') {
+                        pos++;
+                        return text.toString();
+                    }
+                    text.append(readEscape());
+                    run = pos;
+                } else if (b >= 0 && b < 0x20) {
+                    throw malformed();
+                } else {
+                    pos++;
+                }
+            }
+            throw malformed();
+        }
+
+        // decoded by the same rules as Jackson's parser, bytes it turns down aren't quietly replaced here
+        private String utf8(int from, int to) throws JWTDecodeException {
+            char[] chars = new char[to - from];
+            int length = 0;
+            int i = from;
+            while (i < to) {
+                int c = json[i++] & 0xFF;
+                int continuation;
+                if (c < 0x80) {
+                    chars[length++] = (char) c;
+                    continue;
+                } else if ((c & 0xE0) == 0xC0) {
+                    c &= 0x1F;
+                    continuation = 1;
+                } else if ((c & 0xF0) == 0xE0) {
+                    c &= 0x0F;
+                    continuation = 2;
+                } else if ((c & 0xF8) == 0xF0) {
+                    c &= 0x07;
+                    continuation = 3;
+                } else {
+                    throw malformed();
+                }
+                if (to - i < continuation) {
+                    throw malformed();
+                }
+                for (int k = 0; k < continuation; k++) {
+                    int b = json[i++];
+                    if ((b & 0xC0) != 0x80) {
+                        throw malformed();
+                    }
+                    c = c << 6 | (b & 0x3F);
+                }
+                if (continuation == 3) {
+                    c -= 0x10000;
+                    chars[length++] = (char) (0xD800 | (c >> 10));
+                    c = 0xDC00 | (c & 0x3FF);
+                }
+                chars[length++] = (char) c;
+            }
+            return new String(chars, 0, length);
+        }
+
+        private char readEscape() throws JWTDecodeException {
+            if (pos + 1 >= end) {
+                throw malformed();
+            }
+            byte b = json[pos + 1];
+            pos += 2;
+            switch (b) {
+                case '"':
+                case '\\':
+                case '/':
+                    return (char) b;
+                case 'b':
+                    return '\b';
+                case 'f':
+                    return '\f';
+                case 'n':
+                    return '\n';
+                case 'r':
+                    return '\r';
+                case 't':
+                    return '\t';
+                case 'u':
+                    if (pos + 4 > end) {
+                        throw malformed();
+                    }
+                    int value = 0;
+                    for (int i = 0; i < 4; i++) {
+                        int digit = Character.digit(json[pos++], 16);
+                        if (digit < 0) {
+                            throw malformed();
+                        }
+                        value = value << 4 | digit;
+                    }
+                    return (char) value;
+                default:
+                    throw malformed();
+            }
+        }
+
+        private void readLiteral(String literal) throws JWTDecodeException {
+            if (end - pos < literal.length()) {
+                throw malformed();
+            }
+            for (int i = 0; i < literal.length(); i++) {
+                if (json[pos + i] != literal.charAt(i)) {
+                    throw malformed();
+                }
+            }
+            pos += literal.length();
+        }
+
+        private void expect(char c) throws JWTDecodeException {
+            if (peek() != c) {
+                throw malformed();
+            }
+            pos++;
+        }
+
+        private int peek() {
+            pos = JsonScanner.skipWhitespace(json, pos, end);
+            return pos < end ? json[pos] : -1;
+        }
+
+        private JWTDecodeException malformed() {
+            return decodeException(new String(json, start, end - start, StandardCharsets.UTF_8));
+        }
+    }
+}
@@ -27,6 +27,10 @@ class JsonNodeIClaim implements IClaim {
         this.objectReader = objectReader;
     }
 
+    JsonNode node() {
+        return data;
+    }
+
     @Override
     public Boolean asBoolean() {
         return isMissing() || isNull() || !data.isBoolean() ? null : data.asBoolean();
@@ -0,0 +1,119 @@
+package dev.kocak.yusuf.JWTHelper.impl;
+
+
+abstract class JsonScanner {
+
+    static int skipWhitespace(byte[] json, int i, int end) {
+        while (i < end && isWhitespace(json[i])) {
+            i++;
+        }
+        return i;
+    }
+
+    static boolean isWhitespace(byte b) {
+        return b == ' ' || b == '\t' || b == '\n' || b == '\r';
+    }
+
+    // index after the closing quote of the string starting at i, -1 when it isn't terminated
+    static int skipString(byte[] json, int i, int end) {
+        for (i++; i < end; i++) {
+            if (json[i] == '\\') {
+                i++;
+            } else if (json[i] == '"') {
+                return i + 1;
+            }
+        }
+        return -1;
+    }
+
+    // index after the value starting at i, -1 when it runs past end. Only brackets and quotes are checked
+    static int skipValue(byte[] json, int i, int end) {
+        if (i >= end) {
+            return -1;
+        }
+        byte b = json[i];
+        if (b == '"') {
+            return skipString(json, i, end);
+        }
+        if (b == '{' || b == '[') {
+            int depth = 0;
+            while (i < end) {
+                b = json[i];
+                if (b == '"') {
+                    i = skipString(json, i, end);
+                    if (i < 0) {
+                        return -1;
+                    }
+                    continue;
+                }
+                if (b == '{' || b == '[') {
+                    depth++;
+                } else if ((b == '}' || b == ']') && --depth == 0) {
+                    return i + 1;
+                }
+                i++;
+            }
+            return -1;
+        }
+        int start = i;
+        while (i < end && b != ',' && b != '}' && b != ']' && !isWhitespace(b)) {
+            if (++i < end) {
+                b = json[i];
+            }
+        }
+        return i == start ? -1 : i;
+    }
+
+    // start of the value of the last top-level member called name, as a parser keeps the last duplicate.
+    // -1 when there's no such member, -2 when the input isn't a well formed object
+    static int lastMember(byte[] json, int from, int to, byte[] name) {
+        int i = skipWhitespace(json, from, to);
+        if (i >= to || json[i] != '{') {
+            return -2;
+        }
+        int found = -1;
+        i = skipWhitespace(json, i + 1, to);
+        if (i < to && json[i] == '}') {
+            return found;
+        }
+        while (i < to && json[i] == '"') {
+            int keyEnd = skipString(json, i, to);
+            if (keyEnd < 0) {
+                return -2;
+            }
+            int value = skipWhitespace(json, keyEnd, to);
+            if (value >= to || json[value] != ':') {
+                return -2;
+            }
+            value = skipWhitespace(json, value + 1, to);
+            int valueEnd = skipValue(json, value, to);
+            if (valueEnd < 0) {
+                return -2;
+            }
+            if (keyEquals(json, i + 1, keyEnd - 1, name)) {
+                found = value;
+            }
+            i = skipWhitespace(json, valueEnd, to);
+            if (i < to && json[i] == '}') {
+                return found;
+            }
+            if (i >= to || json[i] != ',') {
+                return -2;
+            }
+            i = skipWhitespace(json, i + 1, to);
+        }
+        return -2;
+    }
+
+    private static boolean keyEquals(byte[] json, int from, int to, byte[] name) {
+        if (to - from != name.length) {
+            return false;
+        }
+        for (int i = 0; i < name.length; i++) {
+            if (json[from + i] != name[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -3,11 +3,12 @@ package dev.kocak.yusuf.JWTHelper.impl;
 
 import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.DeserializationContext;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectReader;
 import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+import com.fasterxml.jackson.databind.node.ArrayNode;
 import dev.kocak.yusuf.JWTHelper.RegisteredClaims;
 import dev.kocak.yusuf.JWTHelper.exceptions.JWTDecodeException;
 import dev.kocak.yusuf.JWTHelper.model.IPayload;
@@ -18,6 +19,8 @@ import java.util.*;
 
 class PayloadDeserializer extends StdDeserializer<IPayload> {
 
+    static final String PROJECTION = "dev.kocak.yusuf.JWTHelper.projection";
+
     private final ObjectReader objectReader;
 
     PayloadDeserializer(ObjectReader reader) {
@@ -32,25 +35,129 @@ class PayloadDeserializer extends StdDeserializer<IPayload> {
 
     @Override
     public IPayload deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
-        Map<String, JsonNode> tree = p.getCodec().readValue(p, new TypeReference<Map<String, JsonNode>>() {
-        });
-        if (tree == null) {
-            throw new JWTDecodeException("Parsing the Payload's JSON resulted on a Null map");
+        JsonToken token = p.currentToken();
+        if (token == JsonToken.START_OBJECT) {
+            token = p.nextToken();
+        } else if (token != JsonToken.FIELD_NAME && token != JsonToken.END_OBJECT) {
+            return (IPayload) ctxt.handleUnexpectedToken(IPayload.class, p);
+        }
+
+        String issuer = null;
+        String subject = null;
+        List<String> audience = null;
+        boolean singleAudience = false;
+        Instant expiresAt = null;
+        Instant notBefore = null;
+        Instant issuedAt = null;
+        String jwtId = null;
+        Map<String, JsonNode> tree = new LinkedHashMap<>();
+        @SuppressWarnings("unchecked")
+        Set<String> projection = (Set<String>) ctxt.getAttribute(PROJECTION);
+
+        // registered claims in their usual shape are kept as plain values, everything else goes to the tree
+        for (; token == JsonToken.FIELD_NAME; token = p.nextToken()) {
+            String name = p.currentName();
+            JsonToken value = p.nextToken();
+            if (name.length() != 3) {
+                readCustomClaim(p, ctxt, name, tree, projection);
+            } else if (name.equals(RegisteredClaims.ISSUER)) {
+                issuer = value == JsonToken.VALUE_STRING ? textValue(p, name, tree)
+                        : getString(readNode(p, ctxt, name, tree));
+            } else if (name.equals(RegisteredClaims.SUBJECT)) {
+                subject = value == JsonToken.VALUE_STRING ? textValue(p, name, tree)
+                        : getString(readNode(p, ctxt, name, tree));
+            } else if (name.equals(RegisteredClaims.JWT_ID)) {
+                jwtId = value == JsonToken.VALUE_STRING ? textValue(p, name, tree)
+                        : getString(readNode(p, ctxt, name, tree));
+            } else if (name.equals(RegisteredClaims.AUDIENCE)) {
+                singleAudience = value == JsonToken.VALUE_STRING;
+                if (singleAudience) {
+                    String text = textValue(p, name, tree);
+                    audience = text.isEmpty() ? Collections.<String>emptyList() : Collections.singletonList(text);
+                } else if (value == JsonToken.START_ARRAY) {
+                    audience = readAudienceArray(p, ctxt, name, tree);
+                } else {
+                    audience = getStringOrArray(readNode(p, ctxt, name, tree), objectReader);
+                }
+            } else if (name.equals(RegisteredClaims.EXPIRES_AT)) {
+                expiresAt = isEpochSeconds(p, value) ? secondsValue(p, name, tree)
+                        : getInstantFromSeconds(readNode(p, ctxt, name, tree), name);
+            } else if (name.equals(RegisteredClaims.NOT_BEFORE)) {
+                notBefore = isEpochSeconds(p, value) ? secondsValue(p, name, tree)
+                        : getInstantFromSeconds(readNode(p, ctxt, name, tree), name);
+            } else if (name.equals(RegisteredClaims.ISSUED_AT)) {
+                issuedAt = isEpochSeconds(p, value) ? secondsValue(p, name, tree)
+                        : getInstantFromSeconds(readNode(p, ctxt, name, tree), name);
+            } else {
+                readCustomClaim(p, ctxt, name, tree, projection);
+            }
+        }
+        if (token != JsonToken.END_OBJECT) {
+            return (IPayload) ctxt.handleUnexpectedToken(IPayload.class, p);
+        }
+
+        return new PayloadImpl(issuer, subject, audience, singleAudience, expiresAt, notBefore, issuedAt, jwtId,
+                tree, objectReader);
+    }
+
+    private static void readCustomClaim(JsonParser p, DeserializationContext ctxt, String name,
+                                        Map<String, JsonNode> tree, Set<String> projection) throws IOException {
+        if (projection == null || projection.contains(name)) {
+            tree.put(name, ctxt.readTree(p));
+        } else {
+            p.skipChildren();
+        }
+    }
+
+    private List<String> readAudienceArray(JsonParser p, DeserializationContext ctxt, String name,
+                                           Map<String, JsonNode> tree) throws IOException {
+        List<String> list = new ArrayList<>();
+        JsonToken token;
+        while ((token = p.nextToken()) == JsonToken.VALUE_STRING) {
+            list.add(p.getText());
+        }
+        if (token == JsonToken.END_ARRAY) {
+            tree.remove(name);
+            return list;
+        }
+
+        ArrayNode node = ctxt.getNodeFactory().arrayNode(list.size() + 1);
+        for (String item : list) {
+            node.add(item);
+        }
+        for (; token != JsonToken.END_ARRAY; token = p.nextToken()) {
+            node.add(ctxt.readTree(p));
         }
+        tree.put(name, node);
+        return getStringOrArray(node, objectReader);
+    }
 
-        String issuer = getString(tree, RegisteredClaims.ISSUER);
-        String subject = getString(tree, RegisteredClaims.SUBJECT);
-        List<String> audience = getStringOrArray(tree, RegisteredClaims.AUDIENCE);
-        Instant expiresAt = getInstantFromSeconds(tree, RegisteredClaims.EXPIRES_AT);
-        Instant notBefore = getInstantFromSeconds(tree, RegisteredClaims.NOT_BEFORE);
-        Instant issuedAt = getInstantFromSeconds(tree, RegisteredClaims.ISSUED_AT);
-        String jwtId = getString(tree, RegisteredClaims.JWT_ID);
+    private static JsonNode readNode(JsonParser p, DeserializationContext ctxt, String name,
+                                     Map<String, JsonNode> tree) throws IOException {
+        JsonNode node = ctxt.readTree(p);
+        tree.put(name, node);
+        return node;
+    }
+
+    private static String textValue(JsonParser p, String name, Map<String, JsonNode> tree) throws IOException {
+        tree.remove(name);
+        return p.getText();
+    }
+
+    private static boolean isEpochSeconds(JsonParser p, JsonToken value) throws IOException {
+        if (value != JsonToken.VALUE_NUMBER_INT) {
+            return false;
+        }
+        JsonParser.NumberType type = p.getNumberType();
+        return type == JsonParser.NumberType.INT || type == JsonParser.NumberType.LONG;
+    }
 
-        return new PayloadImpl(issuer, subject, audience, expiresAt, notBefore, issuedAt, jwtId, tree, objectReader);
+    private static Instant secondsValue(JsonParser p, String name, Map<String, JsonNode> tree) throws IOException {
+        tree.remove(name);
+        return Instant.ofEpochSecond(p.getLongValue());
     }
 
-    List<String> getStringOrArray(Map<String, JsonNode> tree, String claimName) throws JWTDecodeException {
-        JsonNode node = tree.get(claimName);
+    static List<String> getStringOrArray(JsonNode node, ObjectReader objectReader) throws JWTDecodeException {
         if (node == null || node.isNull() || !(node.isArray() || node.isTextual())) {
             return null;
         }
@@ -69,8 +176,7 @@ class PayloadDeserializer extends StdDeserializer<IPayload> {
         return list;
     }
 
-    Instant getInstantFromSeconds(Map<String, JsonNode> tree, String claimName) {
-        JsonNode node = tree.get(claimName);
+    static Instant getInstantFromSeconds(JsonNode node, String claimName) {
         if (node == null || node.isNull()) {
             return null;
         }
@@ -81,8 +187,7 @@ class PayloadDeserializer extends StdDeserializer<IPayload> {
         return Instant.ofEpochSecond(node.asLong());
     }
 
-    String getString(Map<String, JsonNode> tree, String claimName) {
-        JsonNode node = tree.get(claimName);
+    static String getString(JsonNode node) {
         if (node == null || node.isNull()) {
             return null;
         }
@@ -2,6 +2,12 @@ package dev.kocak.yusuf.JWTHelper.impl;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.IntNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.LongNode;
+import com.fasterxml.jackson.databind.node.TextNode;
+import dev.kocak.yusuf.JWTHelper.RegisteredClaims;
 import dev.kocak.yusuf.JWTHelper.model.IClaim;
 import dev.kocak.yusuf.JWTHelper.model.IPayload;
 
@@ -9,26 +15,35 @@ import java.io.Serializable;
 import java.time.Instant;
 import java.util.*;
 
+import static dev.kocak.yusuf.JWTHelper.impl.JsonNodeIClaim.claimFromNode;
 import static dev.kocak.yusuf.JWTHelper.impl.JsonNodeIClaim.extractClaim;
 
 class PayloadImpl implements IPayload, Serializable {
 
     private static final long serialVersionUID = 1659021498824562311L;
 
+    private static final String[] REGISTERED_CLAIMS = {
+            RegisteredClaims.ISSUER, RegisteredClaims.SUBJECT, RegisteredClaims.AUDIENCE, RegisteredClaims.EXPIRES_AT,
+            RegisteredClaims.NOT_BEFORE, RegisteredClaims.ISSUED_AT, RegisteredClaims.JWT_ID
+    };
+
     private final String issuer;
     private final String subject;
     private final List<String> audience;
+    private final boolean singleAudience;
     private final Instant expiresAt;
     private final Instant notBefore;
     private final Instant issuedAt;
     private final String jwtId;
     private final Map<String, JsonNode> tree;
     private final ObjectReader objectReader;
+    private transient volatile Map<String, IClaim> claims;
 
     PayloadImpl(
             String issuer,
             String subject,
             List<String> audience,
+            boolean singleAudience,
             Instant expiresAt,
             Instant notBefore,
             Instant issuedAt,
@@ -39,6 +54,7 @@ class PayloadImpl implements IPayload, Serializable {
         this.issuer = issuer;
         this.subject = subject;
         this.audience = audience != null ? Collections.unmodifiableList(audience) : null;
+        this.singleAudience = singleAudience;
         this.expiresAt = expiresAt;
         this.notBefore = notBefore;
         this.issuedAt = issuedAt;
@@ -47,10 +63,6 @@ class PayloadImpl implements IPayload, Serializable {
         this.objectReader = objectReader;
     }
 
-    Map<String, JsonNode> getTree() {
-        return tree;
-    }
-
     @Override
     public String getIssuer() {
         return issuer;
@@ -104,15 +116,154 @@ class PayloadImpl implements IPayload, Serializable {
 
     @Override
     public IClaim getClaim(String name) {
-        return extractClaim(name, tree, objectReader);
+        return claimFromNode(getNode(name), objectReader);
     }
 
     @Override
     public Map<String, IClaim> getClaims() {
-        Map<String, IClaim> claims = new HashMap<>(tree.size() * 2);
-        for (String name : tree.keySet()) {
-            claims.put(name, extractClaim(name, tree, objectReader));
+        Map<String, IClaim> result = claims;
+        if (result == null) {
+            result = Collections.unmodifiableMap(new ClaimsView());
+            claims = result;
+        }
+        return result;
+    }
+
+    private JsonNode getNode(String name) {
+        JsonNode node = tree.get(name);
+        if (node == null && name.length() == 3) {
+            node = registeredClaimNode(name);
+        }
+        return node;
+    }
+
+    private JsonNode registeredClaimNode(String name) {
+        if (tree.containsKey(name)) {
+            return null;
+        }
+        if (name.equals(RegisteredClaims.ISSUER)) {
+            return textNode(issuer);
+        } else if (name.equals(RegisteredClaims.SUBJECT)) {
+            return textNode(subject);
+        } else if (name.equals(RegisteredClaims.JWT_ID)) {
+            return textNode(jwtId);
+        } else if (name.equals(RegisteredClaims.AUDIENCE)) {
+            return audienceNode();
+        } else if (name.equals(RegisteredClaims.EXPIRES_AT)) {
+            return secondsNode(expiresAt);
+        } else if (name.equals(RegisteredClaims.NOT_BEFORE)) {
+            return secondsNode(notBefore);
+        } else if (name.equals(RegisteredClaims.ISSUED_AT)) {
+            return secondsNode(issuedAt);
+        }
+        return null;
+    }
+
+    private JsonNode audienceNode() {
+        if (audience == null) {
+            return null;
+        }
+        if (singleAudience) {
+            return TextNode.valueOf(audience.isEmpty() ? "" : audience.get(0));
+        }
+        ArrayNode node = JsonNodeFactory.instance.arrayNode(audience.size());
+        for (String item : audience) {
+            node.add(item);
+        }
+        return node;
+    }
+
+    private static JsonNode textNode(String value) {
+        return value != null ? TextNode.valueOf(value) : null;
+    }
+
+    private static JsonNode secondsNode(Instant value) {
+        if (value == null) {
+            return null;
+        }
+        long seconds = value.getEpochSecond();
+        return seconds == (int) seconds ? IntNode.valueOf((int) seconds) : LongNode.valueOf(seconds);
+    }
+
+    private final class ClaimsView extends AbstractMap<String, IClaim> {
+        private final String[] names;
+        private final IClaim[] values;
+
+        ClaimsView() {
+            List<String> present = new ArrayList<>(tree.keySet());
+            for (String name : REGISTERED_CLAIMS) {
+                if (registeredClaimNode(name) != null) {
+                    present.add(name);
+                }
+            }
+            this.names = present.toArray(new String[0]);
+            this.values = new IClaim[names.length];
+        }
+
+        @Override
+        public IClaim get(Object key) {
+            int index = indexOf(key);
+            return index < 0 ? null : valueAt(index);
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return indexOf(key) >= 0;
+        }
+
+        @Override
+        public int size() {
+            return names.length;
+        }
+
+        @Override
+        public Set<Entry<String, IClaim>> entrySet() {
+            return new AbstractSet<Entry<String, IClaim>>() {
+                @Override
+                public Iterator<Entry<String, IClaim>> iterator() {
+                    return new Iterator<Entry<String, IClaim>>() {
+                        private int next;
+
+                        @Override
+                        public boolean hasNext() {
+                            return next < names.length;
+                        }
+
+                        @Override
+                        public Entry<String, IClaim> next() {
+                            if (next >= names.length) {
+                                throw new NoSuchElementException();
+                            }
+                            int index = next++;
+                            return new SimpleImmutableEntry<>(names[index], valueAt(index));
+                        }
+                    };
+                }
+
+                @Override
+                public int size() {
+                    return names.length;
+                }
+            };
+        }
+
+        private int indexOf(Object key) {
+            for (int i = 0; i < names.length; i++) {
+                if (names[i].equals(key)) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        private IClaim valueAt(int index) {
+            IClaim value = values[index];
+            if (value == null) {
+                // claims are immutable, so racing threads at worst build the same one twice
+                value = getClaim(names[index]);
+                values[index] = value;
+            }
+            return value;
         }
-        return Collections.unmodifiableMap(claims);
     }
 }
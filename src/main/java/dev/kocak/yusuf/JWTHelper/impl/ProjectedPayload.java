@@ -0,0 +1,100 @@
+package dev.kocak.yusuf.JWTHelper.impl;
+
+import dev.kocak.yusuf.JWTHelper.model.IClaim;
+import dev.kocak.yusuf.JWTHelper.model.IPayload;
+
+import java.io.Serializable;
+import java.time.Instant;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+
+// claims left out of the projection are still reachable, the first read of one parses the whole payload again
+class ProjectedPayload implements IPayload, Serializable {
+
+    private static final long serialVersionUID = -2140745011325573226L;
+
+    private final IPayload projected;
+    private final Set<String> projection;
+    private final byte[] json;
+    private final transient JWTParser fullParser;
+    private volatile IPayload full;
+
+    ProjectedPayload(IPayload projected, Set<String> projection, byte[] json, JWTParser fullParser) {
+        this.projected = projected;
+        this.projection = projection;
+        this.json = json;
+        this.fullParser = fullParser;
+    }
+
+    private IPayload full() {
+        IPayload result = full;
+        if (result == null) {
+            result = (fullParser != null ? fullParser : JWTParser.getDefault()).parsePayload(json, 0, json.length);
+            full = result;
+        }
+        return result;
+    }
+
+    @Override
+    public String getIssuer() {
+        return projected.getIssuer();
+    }
+
+    @Override
+    public String getSubject() {
+        return projected.getSubject();
+    }
+
+    @Override
+    public List<String> getAudience() {
+        return projected.getAudience();
+    }
+
+    @Override
+    public Date getExpiresAt() {
+        return projected.getExpiresAt();
+    }
+
+    @Override
+    public Instant getExpiresAtAsInstant() {
+        return projected.getExpiresAtAsInstant();
+    }
+
+    @Override
+    public Date getNotBefore() {
+        return projected.getNotBefore();
+    }
+
+    @Override
+    public Instant getNotBeforeAsInstant() {
+        return projected.getNotBeforeAsInstant();
+    }
+
+    @Override
+    public Date getIssuedAt() {
+        return projected.getIssuedAt();
+    }
+
+    @Override
+    public Instant getIssuedAtAsInstant() {
+        return projected.getIssuedAtAsInstant();
+    }
+
+    @Override
+    public String getId() {
+        return projected.getId();
+    }
+
+    @Override
+    public IClaim getClaim(String name) {
+        return projection.contains(name) ? projected.getClaim(name) : full().getClaim(name);
+    }
+
+    @Override
+    public Map<String, IClaim> getClaims() {
+        return full().getClaims();
+    }
+}
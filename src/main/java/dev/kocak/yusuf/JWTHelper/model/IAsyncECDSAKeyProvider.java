@@ -0,0 +1,7 @@
+package dev.kocak.yusuf.JWTHelper.model;
+
+import java.security.interfaces.ECPrivateKey;
+import java.security.interfaces.ECPublicKey;
+
+public interface IAsyncECDSAKeyProvider extends IECDSAKeyProvider, IAsyncKeyProvider<ECPublicKey, ECPrivateKey> {
+}
@@ -0,0 +1,23 @@
+package dev.kocak.yusuf.JWTHelper.model;
+
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+
+interface IAsyncKeyProvider<U extends PublicKey, R extends PrivateKey> extends IKeyProvider<U, R> {
+    CompletableFuture<U> getPublicKeyByIdAsync(String keyId);
+
+    // the synchronous verify methods still block on the lookup
+    @Override
+    default U getPublicKeyById(String keyId) {
+        try {
+            return getPublicKeyByIdAsync(keyId).join();
+        } catch (CompletionException | CancellationException e) {
+            Throwable cause = e.getCause() != null ? e.getCause() : e;
+            throw new IllegalStateException("The Public Key couldn't be loaded.", cause);
+        }
+    }
+}
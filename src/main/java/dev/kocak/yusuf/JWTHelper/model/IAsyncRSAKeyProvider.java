@@ -0,0 +1,7 @@
+package dev.kocak.yusuf.JWTHelper.model;
+
+import java.security.interfaces.RSAPrivateKey;
+import java.security.interfaces.RSAPublicKey;
+
+public interface IAsyncRSAKeyProvider extends IRSAKeyProvider, IAsyncKeyProvider<RSAPublicKey, RSAPrivateKey> {
+}
@@ -3,10 +3,26 @@ package dev.kocak.yusuf.JWTHelper.model;
 
 import dev.kocak.yusuf.JWTHelper.exceptions.JWTDecodeException;
 
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+
 
 public interface IJWTPartsParser {
 
     IPayload parsePayload(String json) throws JWTDecodeException;
 
+    default IPayload parsePayload(byte[] json, int offset, int length) throws JWTDecodeException {
+        return parsePayload(new String(json, offset, length, StandardCharsets.UTF_8));
+    }
+
     IHeader parseHeader(String json) throws JWTDecodeException;
+
+    default IHeader parseHeader(byte[] json, int offset, int length) throws JWTDecodeException {
+        return parseHeader(new String(json, offset, length, StandardCharsets.UTF_8));
+    }
+
+    // parsers that can't skip claims read all of them, the projection is only a hint
+    default IJWTPartsParser withProjection(Collection<String> claimNames) {
+        return this;
+    }
 }
@@ -1,11 +1,74 @@
 package dev.kocak.yusuf.JWTHelper.model;
 
 
+import dev.kocak.yusuf.JWTHelper.BatchVerification;
+import dev.kocak.yusuf.JWTHelper.VerificationResult;
 import dev.kocak.yusuf.JWTHelper.exceptions.JWTVerificationException;
 
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
 public interface IJWTVerifier {
 
     IDecodedJWT verify(String token) throws JWTVerificationException;
 
+    // verifiers that can't read the token in place get it copied into a String
+    default IDecodedJWT verify(CharSequence token) throws JWTVerificationException {
+        return verify(token.toString());
+    }
+
+    default IDecodedJWT verify(CharSequence token, int start, int end) throws JWTVerificationException {
+        return verify(token.subSequence(start, end).toString());
+    }
+
+    default IDecodedJWT verify(byte[] token, int offset, int length) throws JWTVerificationException {
+        return verify(new String(token, offset, length, StandardCharsets.US_ASCII));
+    }
+
+    default IDecodedJWT verify(ByteBuffer token) throws JWTVerificationException {
+        byte[] bytes = new byte[token.remaining()];
+        token.duplicate().get(bytes);
+        return verify(bytes, 0, bytes.length);
+    }
+
     IDecodedJWT verify(IDecodedJWT jwt) throws JWTVerificationException;
+
+    default VerificationResult tryVerify(CharSequence token, VerificationResult result) {
+        return result.record(() -> verify(token));
+    }
+
+    default VerificationResult tryVerify(byte[] token, int offset, int length, VerificationResult result) {
+        return result.record(() -> verify(token, offset, length));
+    }
+
+    default VerificationResult tryVerify(IDecodedJWT jwt, VerificationResult result) {
+        return result.record(() -> verify(jwt));
+    }
+
+    default List<VerificationResult> verifyAll(List<? extends CharSequence> tokens) {
+        return verifyAll(tokens, ForkJoinPool.commonPool());
+    }
+
+    default List<VerificationResult> verifyAll(List<? extends CharSequence> tokens, ForkJoinPool pool) {
+        return BatchVerification.verifyAll(this, tokens, pool);
+    }
+
+    default List<VerificationResult> verifyAll(Stream<? extends CharSequence> tokens) {
+        if (tokens == null) {
+            throw new IllegalArgumentException("The Tokens cannot be null.");
+        }
+        return verifyAll(tokens.collect(Collectors.toList()));
+    }
+
+    default CompletableFuture<IDecodedJWT> verifyAsync(String token) {
+        if (token == null) {
+            throw new IllegalArgumentException("The Token cannot be null.");
+        }
+        return CompletableFuture.supplyAsync(() -> verify(token));
+    }
 }
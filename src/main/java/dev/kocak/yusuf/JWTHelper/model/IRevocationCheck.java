@@ -0,0 +1,7 @@
+package dev.kocak.yusuf.JWTHelper.model;
+
+// asked only for tokens that passed every other check
+public interface IRevocationCheck {
+
+    boolean isRevoked(IDecodedJWT jwt);
+}
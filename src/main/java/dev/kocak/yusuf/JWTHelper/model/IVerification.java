@@ -1,10 +1,16 @@
 package dev.kocak.yusuf.JWTHelper.model;
 
 
+import dev.kocak.yusuf.JWTHelper.HeaderCache;
 import dev.kocak.yusuf.JWTHelper.JWTVerifier;
+import dev.kocak.yusuf.JWTHelper.RejectedTokenCache;
+import dev.kocak.yusuf.JWTHelper.ReplayGuard;
+import dev.kocak.yusuf.JWTHelper.VerificationOrder;
+import dev.kocak.yusuf.JWTHelper.VerifiedTokenCache;
 
 import java.time.Instant;
 import java.util.Date;
+import java.util.concurrent.Executor;
 import java.util.function.BiPredicate;
 
 
@@ -38,5 +44,46 @@ public interface IVerification {
     IVerification withArrayClaim(String name, Integer... items) throws IllegalArgumentException;
     IVerification withArrayClaim(String name, Long ... items) throws IllegalArgumentException;
     IVerification ignoreIssuedAt();
+    // the options below only change how fast tokens are verified, builders may leave them out
+    default IVerification withVerificationOrder(VerificationOrder order) throws IllegalArgumentException {
+        return this;
+    }
+    default IVerification withHeaderCache(HeaderCache headerCache) {
+        return this;
+    }
+    default IVerification withParser(IJWTPartsParser parser) throws IllegalArgumentException {
+        return this;
+    }
+    default IVerification withClaimProjection(String... claimNames) throws IllegalArgumentException {
+        return this;
+    }
+    default IVerification withStacklessExceptions() {
+        return this;
+    }
+    default IVerification withCoarseClock() {
+        return this;
+    }
+    default IVerification withAdaptiveCheckOrder() {
+        return this;
+    }
+    default IVerification withVerifiedTokenCache(VerifiedTokenCache tokenCache) {
+        return this;
+    }
+    default IVerification withRejectedTokenCache(RejectedTokenCache rejectedCache) {
+        return this;
+    }
+    default IVerification withRequestCoalescing() {
+        return this;
+    }
+    default IVerification withAsyncExecutor(Executor executor) throws IllegalArgumentException {
+        return this;
+    }
+    // these turn tokens down, ignoring them would let through what the caller wants rejected
+    default IVerification withRevocationCheck(IRevocationCheck revocationCheck) throws IllegalArgumentException {
+        throw new UnsupportedOperationException("Revocation checks aren't supported by this Verification.");
+    }
+    default IVerification withReplayProtection(ReplayGuard replayGuard) throws IllegalArgumentException {
+        throw new UnsupportedOperationException("Replay protection isn't supported by this Verification.");
+    }
     IJWTVerifier build();
 }
@@ -0,0 +1,125 @@
+package dev.kocak.yusuf.JWTHelper;
+
+import dev.kocak.yusuf.JWTHelper.algorithms.Algorithm;
+import dev.kocak.yusuf.JWTHelper.model.IDecodedJWT;
+import dev.kocak.yusuf.JWTHelper.model.IJWTVerifier;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+
+class BatchVerificationTest {
+
+    private static final Algorithm ALGORITHM = Algorithm.HMAC256("secret");
+    private static final Algorithm OTHER = Algorithm.HMAC256("other");
+
+    private final IJWTVerifier verifier = JWT.require(ALGORITHM).withIssuer("issuer").build();
+
+
+    @Test
+    void returnsTheResultsInTheOrderOfTheTokens() {
+        List<String> tokens = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            Algorithm algorithm = i % 3 == 0 ? OTHER : ALGORITHM;
+            tokens.add(JWT.create().withIssuer("issuer").withKeyId("k" + i % 5).withSubject("s" + i).sign(algorithm));
+        }
+
+        ForkJoinPool pool = new ForkJoinPool(4);
+        List<VerificationResult> results;
+        try {
+            results = verifier.verifyAll(tokens, pool);
+        } finally {
+            pool.shutdown();
+        }
+        assertEquals(tokens.size(), results.size());
+        for (int i = 0; i < tokens.size(); i++) {
+            VerificationResult result = results.get(i);
+            if (i % 3 == 0) {
+                assertEquals(VerificationResult.Reason.INVALID_SIGNATURE, result.getReason());
+            } else {
+                assertTrue(result.isValid());
+                assertEquals("s" + i, result.getDecodedJWT().getSubject());
+            }
+        }
+    }
+
+
+    @Test
+    void turnsDownNullAndMalformedTokensOnTheirOwn() {
+        String valid = JWT.create().withIssuer("issuer").sign(ALGORITHM);
+        List<String> tokens = new LinkedList<>(Arrays.asList(valid, null, "not.a.token", valid));
+
+        List<VerificationResult> results = verifier.verifyAll(tokens);
+        assertTrue(results.get(0).isValid());
+        assertEquals(VerificationResult.Reason.MALFORMED, results.get(1).getReason());
+        assertEquals(VerificationResult.Reason.MALFORMED, results.get(2).getReason());
+        assertTrue(results.get(3).isValid());
+    }
+
+
+    @Test
+    void aFailingCheckOnlyFailsItsOwnToken() {
+        IJWTVerifier failing = JWT.require(ALGORITHM).withClaim("boom", (claim, jwt) -> {
+            if (claim.asBoolean() != null && claim.asBoolean()) {
+                throw new IllegalStateException("boom");
+            }
+            return true;
+        }).build();
+        String fine = JWT.create().withClaim("boom", false).sign(ALGORITHM);
+        String boom = JWT.create().withClaim("boom", true).sign(ALGORITHM);
+
+        List<VerificationResult> results = failing.verifyAll(Arrays.asList(fine, boom, fine));
+        assertTrue(results.get(0).isValid());
+        assertEquals(VerificationResult.Reason.ERROR, results.get(1).getReason());
+        assertTrue(results.get(2).isValid());
+    }
+
+
+    @Test
+    void aThrowingVerifierOnlyFailsItsOwnToken() {
+        IJWTVerifier throwing = new IJWTVerifier() {
+            @Override
+            public IDecodedJWT verify(String token) {
+                if (token.equals("bad")) {
+                    throw new IllegalStateException("bad");
+                }
+                return JWT.decode(token);
+            }
+
+            @Override
+            public IDecodedJWT verify(IDecodedJWT jwt) {
+                return verify(jwt.getToken());
+            }
+        };
+        String token = JWT.create().withSubject("subject").sign(ALGORITHM);
+
+        List<VerificationResult> results = throwing.verifyAll(Arrays.asList(token, "bad", token));
+        assertTrue(results.get(0).isValid());
+        VerificationResult failed = results.get(1);
+        assertEquals(VerificationResult.Reason.ERROR, failed.getReason());
+        assertTrue(failed.toException().getCause() instanceof IllegalStateException);
+        assertTrue(results.get(2).isValid());
+    }
+
+
+    @Test
+    void acceptsAnEmptyBatch() {
+        assertTrue(verifier.verifyAll(new ArrayList<String>()).isEmpty());
+    }
+
+
+    @Test
+    void rejectsNullArguments() {
+        List<String> tokens = new ArrayList<>();
+        ForkJoinPool pool = ForkJoinPool.commonPool();
+        assertThrows(IllegalArgumentException.class, () -> BatchVerification.verifyAll(null, tokens, pool));
+        assertThrows(IllegalArgumentException.class, () -> BatchVerification.verifyAll(verifier, null, pool));
+        assertThrows(IllegalArgumentException.class, () -> BatchVerification.verifyAll(verifier, tokens, null));
+    }
+}
@@ -0,0 +1,112 @@
+package dev.kocak.yusuf.JWTHelper;
+
+import dev.kocak.yusuf.JWTHelper.algorithms.Algorithm;
+import dev.kocak.yusuf.JWTHelper.model.IJWTVerifier;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+
+class CheckOrderTest {
+
+    private static final int REORDER_INTERVAL = 256;
+
+
+    @Test
+    void startsWithTheIndependentStepsInTheirOwnOrder() {
+        CheckOrder order = new CheckOrder(new int[]{0, 1, 2, 3}, new int[]{1, 1, 1, 1},
+                new boolean[]{true, false, true, true});
+
+        assertArrayEquals(new int[]{0, 2, 3, 1}, order.current());
+    }
+
+
+    @Test
+    void movesTheStepsRejectingTheMostForwards() {
+        CheckOrder order = new CheckOrder(new int[]{0, 1, 2}, new int[]{1, 1, 1}, new boolean[]{true, true, true});
+        reject(order, 2, 10);
+        reject(order, 1, 5);
+        reorder(order);
+
+        assertArrayEquals(new int[]{2, 1, 0}, order.current());
+    }
+
+
+    @Test
+    void weighsRejectionsAgainstTheirCost() {
+        CheckOrder order = new CheckOrder(new int[]{0, 1}, new int[]{4, 1}, new boolean[]{true, true});
+        reject(order, 0, 30);
+        reject(order, 1, 10);
+        reorder(order);
+
+        assertArrayEquals(new int[]{1, 0}, order.current());
+    }
+
+
+    @Test
+    void keepsTiedStepsWhereTheyWere() {
+        CheckOrder order = new CheckOrder(new int[]{0, 1, 2}, new int[]{1, 2, 1}, new boolean[]{true, true, true});
+        reject(order, 0, 4);
+        reject(order, 1, 8);
+        reject(order, 2, 4);
+        reorder(order);
+
+        assertArrayEquals(new int[]{0, 1, 2}, order.current());
+    }
+
+
+    @Test
+    void leavesDependentStepsAtTheEnd() {
+        CheckOrder order = new CheckOrder(new int[]{0, 1, 2}, new int[]{1, 1, 1}, new boolean[]{false, true, true});
+        reject(order, 0, 100);
+        reject(order, 2, 1);
+        reorder(order);
+
+        assertArrayEquals(new int[]{2, 1, 0}, order.current());
+    }
+
+
+    @Test
+    void halvesTheCountsAtEveryReorder() {
+        CheckOrder order = new CheckOrder(new int[]{0}, new int[]{1}, new boolean[]{true});
+        reject(order, 0, 9);
+        reorder(order);
+        assertEquals(5, order.rejections(0));
+        reorder(order);
+        assertEquals(3, order.rejections(0));
+    }
+
+
+    @Test
+    void verifiersCheckTheClaimThatFailsMostFirst() {
+        Algorithm algorithm = Algorithm.HMAC256("secret");
+        IJWTVerifier verifier = JWT.require(algorithm).withClaim("a", "a").withClaim("b", "b")
+                .withAdaptiveCheckOrder().build();
+        String token = JWT.create().withClaim("a", "a").withClaim("b", "other").sign(algorithm);
+        List<String> initial = ((JWTVerifier) verifier).getCheckOrder();
+        assertTrue(initial.indexOf("a") < initial.indexOf("b"));
+
+        // about one token in 64 is sampled, that's several reorders' worth
+        for (int i = 0; i < 64 * REORDER_INTERVAL * 3; i++) {
+            VerificationResult result = verifier.tryVerify(token, new VerificationResult());
+            assertEquals("b", result.getClaimName());
+        }
+        List<String> adapted = ((JWTVerifier) verifier).getCheckOrder();
+        assertEquals("b", adapted.get(0));
+        assertTrue(((JWTVerifier) verifier).getCheckRejections().get("b") > 0);
+    }
+
+    private static void reject(CheckOrder order, int step, int times) {
+        for (int i = 0; i < times; i++) {
+            order.rejected(step);
+        }
+    }
+
+    private static void reorder(CheckOrder order) {
+        for (int i = 0; i < REORDER_INTERVAL; i++) {
+            order.sampled();
+        }
+    }
+}
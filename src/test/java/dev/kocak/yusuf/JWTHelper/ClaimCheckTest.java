@@ -0,0 +1,134 @@
+package dev.kocak.yusuf.JWTHelper;
+
+import dev.kocak.yusuf.JWTHelper.algorithms.Algorithm;
+import dev.kocak.yusuf.JWTHelper.model.IClaim;
+import dev.kocak.yusuf.JWTHelper.model.IDecodedJWT;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+
+class ClaimCheckTest {
+
+    private static final Algorithm ALGORITHM = Algorithm.HMAC256("secret");
+    private static final int VALUES = 80;
+
+
+    @Test
+    void arrayChecksAgreeWithTheMappedComparison() {
+        Random random = new Random(7);
+        for (int round = 0; round < 600; round++) {
+            int kind = round % 3;
+            Object[] items = items(random, kind, size(random));
+            List<Object> values = claimFor(random, items);
+            IDecodedJWT jwt = JWT.decode(JWT.create().withClaim("c", values).sign(ALGORITHM));
+            IClaim claim = jwt.getClaim("c");
+
+            boolean expected = containsAllMapped(claim, items);
+            assertEquals(expected, new ClaimCheck.ArrayContains("c", items).verify(claim, jwt),
+                    "items " + Arrays.toString(items) + " claim " + values);
+        }
+    }
+
+
+    @Test
+    void audienceChecksAgreeWithContainsAll() {
+        Random random = new Random(11);
+        for (int round = 0; round < 400; round++) {
+            List<String> audience = Arrays.asList((String[]) items(random, 0, size(random)));
+            audience = new ArrayList<>(audience);
+            audience.removeAll(Collections.singleton(null));
+            List<Object> values = claimFor(random, audience.toArray());
+            List<String> actual = new ArrayList<>(Collections.singletonList("other"));
+            for (Object value : values) {
+                actual.add(String.valueOf(value));
+            }
+            IDecodedJWT jwt = JWT.decode(JWT.create().withAudience(actual.toArray(new String[0])).sign(ALGORITHM));
+
+            assertEquals(jwt.getAudience().containsAll(audience),
+                    new ClaimCheck.Audience(audience, true).verify(jwt.getClaim("aud"), jwt),
+                    "audience " + audience + " claim " + actual);
+        }
+    }
+
+
+    @Test
+    void arrayChecksOfExactlySixtyFourItems() {
+        String[] items = new String[Long.SIZE];
+        for (int i = 0; i < items.length; i++) {
+            items[i] = "v" + i;
+        }
+        List<Object> all = new ArrayList<>(Arrays.asList(items));
+        IDecodedJWT complete = JWT.decode(JWT.create().withClaim("c", all).sign(ALGORITHM));
+        all.remove(Long.SIZE - 1);
+        IDecodedJWT missingLast = JWT.decode(JWT.create().withClaim("c", all).sign(ALGORITHM));
+
+        ClaimCheck check = new ClaimCheck.ArrayContains("c", items);
+        assertTrue(check.verify(complete.getClaim("c"), complete));
+        assertFalse(check.verify(missingLast.getClaim("c"), missingLast));
+    }
+
+    private static int size(Random random) {
+        return random.nextBoolean() ? random.nextInt(8) : 60 + random.nextInt(10);
+    }
+
+    // String, Integer or Long items, a null among them now and then
+    private static Object[] items(Random random, int kind, int size) {
+        Object[] items = kind == 0 ? new String[size] : kind == 1 ? new Integer[size] : new Long[size];
+        for (int i = 0; i < size; i++) {
+            if (random.nextInt(20) == 0) {
+                continue;
+            }
+            int value = random.nextInt(VALUES);
+            items[i] = kind == 0 ? "v" + value : kind == 1 ? (Object) value
+                    : (Object) (random.nextBoolean() ? value : (1L << 40) + value);
+        }
+        return items;
+    }
+
+    // most of the items, sometimes all of them, mixed up with values of other types
+    private static List<Object> claimFor(Random random, Object[] items) {
+        List<Object> values = new ArrayList<>();
+        boolean all = random.nextBoolean();
+        for (Object item : items) {
+            if (all || random.nextInt(10) != 0) {
+                values.add(item);
+            }
+        }
+        for (int i = random.nextInt(5); i > 0; i--) {
+            int value = random.nextInt(VALUES);
+            switch (random.nextInt(4)) {
+                case 0:
+                    values.add("v" + value);
+                    break;
+                case 1:
+                    values.add(value);
+                    break;
+                case 2:
+                    values.add((1L << 40) + value);
+                    break;
+                default:
+                    values.add(null);
+            }
+        }
+        Collections.shuffle(values, random);
+        return values;
+    }
+
+    // how array claims were compared before the bit sets, on the claim mapped by Jackson
+    private static boolean containsAllMapped(IClaim claim, Object[] items) {
+        Object[] mapped = claim.as(Object[].class);
+        List<Object> values = new ArrayList<>();
+        for (Object value : mapped) {
+            values.add(items instanceof Long[] && value instanceof Integer ? (Object) ((Integer) value).longValue()
+                    : value);
+        }
+        return values.containsAll(Arrays.asList(items));
+    }
+}
@@ -0,0 +1,103 @@
+package dev.kocak.yusuf.JWTHelper;
+
+import dev.kocak.yusuf.JWTHelper.algorithms.Algorithm;
+import dev.kocak.yusuf.JWTHelper.model.IDecodedJWT;
+import dev.kocak.yusuf.JWTHelper.model.IJWTVerifier;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+
+class CompactDecodedJWTTest {
+
+    private static final Algorithm ALGORITHM = Algorithm.HMAC256("secret");
+    private static final String TOKEN = JWT.create().withIssuer("issuer").withAudience("a", "b")
+            .withClaim("role", "admin").sign(ALGORITHM);
+    private static final String ALPHABET = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789-_";
+
+    private final IJWTVerifier verifier = JWT.require(ALGORITHM).withIssuer("issuer").build();
+
+
+    @Test
+    void keepsWhatTheDecodedTokenHad() {
+        IDecodedJWT decoded = JWT.decode(TOKEN);
+        IDecodedJWT compact = JWT.compact(decoded);
+
+        assertEquals(TOKEN, compact.getToken());
+        assertEquals(decoded.getHeader(), compact.getHeader());
+        assertEquals(decoded.getPayload(), compact.getPayload());
+        assertEquals(decoded.getSignature(), compact.getSignature());
+        assertEquals("issuer", compact.getIssuer());
+        assertEquals(decoded.getAudience(), compact.getAudience());
+        assertEquals("admin", compact.getClaim("role").asString());
+        assertEquals("HS256", compact.getAlgorithm());
+        assertSame(compact, JWT.compact(compact));
+    }
+
+
+    @Test
+    void rebuiltTokensStillVerify() {
+        assertEquals(TOKEN, verifier.verify(JWT.compact(verifier.verify(TOKEN)).getToken()).getToken());
+    }
+
+
+    @Test
+    void keepsAPaddedPayloadAsItWasSent() {
+        String header = TOKEN.substring(0, TOKEN.indexOf('.'));
+        String payload = Base64.getUrlEncoder().encodeToString(
+                "{\"iss\":\"issuer\",\"x\":1}".getBytes(StandardCharsets.UTF_8));
+        assertTrue(payload.endsWith("="));
+        byte[] signature = ALGORITHM.sign(header.getBytes(StandardCharsets.US_ASCII),
+                payload.getBytes(StandardCharsets.US_ASCII));
+        String token = header + "." + payload + "."
+                + Base64.getUrlEncoder().withoutPadding().encodeToString(signature);
+
+        IDecodedJWT compact = JWT.compact(verifier.verify(token));
+        assertEquals(payload, compact.getPayload());
+        assertEquals(token, compact.getToken());
+        assertEquals(1, compact.getClaim("x").asInt().intValue());
+        verifier.verify(compact.getToken());
+    }
+
+
+    @Test
+    void keepsANonCanonicalSignatureAsItWasSent() {
+        // the last character of a 32 byte signature has two unused bits, setting one decodes to the same bytes
+        char last = TOKEN.charAt(TOKEN.length() - 1);
+        String token = TOKEN.substring(0, TOKEN.length() - 1) + ALPHABET.charAt(ALPHABET.indexOf(last) | 1);
+        assertNotEquals(TOKEN, token);
+
+        IDecodedJWT compact = JWT.compact(verifier.verify(token));
+        assertEquals(token, compact.getToken());
+        assertEquals(token.substring(token.lastIndexOf('.') + 1), compact.getSignature());
+    }
+
+
+    @Test
+    void survivesSerialization() throws Exception {
+        IDecodedJWT compact = JWT.compact(JWT.decode(TOKEN));
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(compact);
+        }
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            IDecodedJWT read = (IDecodedJWT) in.readObject();
+            assertEquals(TOKEN, read.getToken());
+            assertEquals("admin", read.getClaim("role").asString());
+        }
+    }
+
+
+    @Test
+    void rejectsNull() {
+        assertThrows(IllegalArgumentException.class, () -> JWT.compact(null));
+    }
+}
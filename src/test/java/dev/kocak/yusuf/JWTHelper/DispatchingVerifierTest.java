@@ -0,0 +1,125 @@
+package dev.kocak.yusuf.JWTHelper;
+
+import dev.kocak.yusuf.JWTHelper.algorithms.Algorithm;
+import dev.kocak.yusuf.JWTHelper.exceptions.AlgorithmMismatchException;
+import dev.kocak.yusuf.JWTHelper.model.IDecodedJWT;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.CompletionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+
+class DispatchingVerifierTest {
+
+    private static final Algorithm FIRST = Algorithm.HMAC256("first");
+    private static final Algorithm SECOND = Algorithm.HMAC256("second");
+    private static final Algorithm FALLBACK = Algorithm.HMAC256("fallback");
+    private static final Algorithm OTHER = Algorithm.HMAC384("other");
+
+    private final DispatchingVerifier dispatcher = JWT.dispatch()
+            .register("first", verifier(FIRST))
+            .register("second", verifier(SECOND))
+            .register(verifier(FALLBACK))
+            .register(verifier(OTHER))
+            .build();
+
+
+    @Test
+    void routesByKeyId() {
+        assertEquals("first", dispatcher.verify(token("first", FIRST)).getKeyId());
+        assertEquals("second", dispatcher.verify(token("second", SECOND)).getKeyId());
+        assertEquals(VerificationResult.Reason.INVALID_SIGNATURE,
+                dispatcher.tryVerify(token("first", SECOND), new VerificationResult()).getReason());
+    }
+
+
+    @Test
+    void fallsBackToTheVerifierWithoutAKeyId() {
+        assertTrue(dispatcher.tryVerify(token("unknown", FALLBACK), new VerificationResult()).isValid());
+        assertTrue(dispatcher.tryVerify(token(null, FALLBACK), new VerificationResult()).isValid());
+    }
+
+
+    @Test
+    void routesByAlgorithm() {
+        assertEquals("HS384", dispatcher.verify(token(null, OTHER)).getAlgorithm());
+        assertEquals("HS384", dispatcher.verify(token("first", OTHER)).getAlgorithm());
+    }
+
+
+    @Test
+    void rejectsUnknownAlgorithmsAndKeyIds() {
+        DispatchingVerifier strict = JWT.dispatch().register("first", verifier(FIRST)).build();
+        String unknownKeyId = token("second", SECOND);
+        String unknownAlgorithm = token("first", Algorithm.HMAC512("first"));
+
+        assertThrows(AlgorithmMismatchException.class, () -> strict.verify(unknownKeyId));
+        assertThrows(AlgorithmMismatchException.class, () -> strict.verify(unknownAlgorithm));
+        assertEquals(VerificationResult.Reason.ALGORITHM_MISMATCH,
+                strict.tryVerify(unknownKeyId, new VerificationResult()).getReason());
+        assertEquals(VerificationResult.Reason.ALGORITHM_MISMATCH,
+                strict.tryVerify(unknownAlgorithm, new VerificationResult()).getReason());
+        assertEquals(VerificationResult.Reason.ALGORITHM_MISMATCH,
+                strict.tryVerify(JWT.decode(unknownKeyId), new VerificationResult()).getReason());
+    }
+
+
+    @Test
+    void rejectsMalformedTokens() {
+        assertEquals(VerificationResult.Reason.MALFORMED,
+                dispatcher.tryVerify("not.a.token", new VerificationResult()).getReason());
+    }
+
+
+    @Test
+    void routesAsyncVerifications() {
+        assertEquals("second", dispatcher.verifyAsync(token("second", SECOND)).join().getKeyId());
+
+        DispatchingVerifier strict = JWT.dispatch().register("first", verifier(FIRST)).build();
+        CompletionException e = assertThrows(CompletionException.class,
+                () -> strict.verifyAsync(token("second", SECOND)).join());
+        assertTrue(e.getCause() instanceof AlgorithmMismatchException);
+    }
+
+
+    @Test
+    void verifiedTokensDoNotReadTheCallersArray() {
+        String token = token("first", FIRST);
+        byte[] array = token.getBytes(StandardCharsets.US_ASCII);
+        IDecodedJWT verified = dispatcher.verify(array, 0, array.length);
+        IDecodedJWT tried = dispatcher.tryVerify(array, 0, array.length, new VerificationResult()).getDecodedJWT();
+        Arrays.fill(array, (byte) 'A');
+
+        assertEquals(token, verified.getToken());
+        assertEquals(token, tried.getToken());
+        assertEquals("first", tried.getKeyId());
+    }
+
+
+    @Test
+    void rejectsASecondVerifierForTheSameRoute() {
+        DispatchingVerifier.Builder builder = JWT.dispatch().register("first", verifier(FIRST))
+                .register(verifier(FIRST));
+
+        assertThrows(IllegalArgumentException.class, () -> builder.register("first", verifier(FIRST)));
+        assertThrows(IllegalArgumentException.class, () -> builder.register(verifier(FIRST)));
+        assertThrows(IllegalArgumentException.class, () -> builder.register(null));
+    }
+
+
+    @Test
+    void rejectsANullResult() {
+        assertThrows(IllegalArgumentException.class, () -> dispatcher.tryVerify(token("first", FIRST), null));
+    }
+
+    private static JWTVerifier verifier(Algorithm algorithm) {
+        return (JWTVerifier) JWT.require(algorithm).withIssuer("issuer").build();
+    }
+
+    private static String token(String keyId, Algorithm algorithm) {
+        return JWT.create().withKeyId(keyId).withIssuer("issuer").sign(algorithm);
+    }
+}
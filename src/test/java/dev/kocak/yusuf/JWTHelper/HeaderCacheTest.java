@@ -0,0 +1,93 @@
+package dev.kocak.yusuf.JWTHelper;
+
+import dev.kocak.yusuf.JWTHelper.algorithms.Algorithm;
+import dev.kocak.yusuf.JWTHelper.model.IDecodedJWT;
+import dev.kocak.yusuf.JWTHelper.model.IHeader;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+
+class HeaderCacheTest {
+
+    private static final String TOKEN = JWT.create().withKeyId("key").sign(Algorithm.HMAC256("secret"));
+    private static final IHeader HEADER = JWT.decode(TOKEN);
+
+
+    @Test
+    void rejectsInvalidSizes() {
+        assertThrows(IllegalArgumentException.class, () -> new HeaderCache(0, 1));
+        assertThrows(IllegalArgumentException.class, () -> new HeaderCache(1, 0));
+    }
+
+
+    @Test
+    void admitsAHeaderOnlyOnceSeenEnoughTimes() {
+        HeaderCache cache = new HeaderCache(8, 3);
+        byte[] segment = bytes("eyJhbGciOiJIUzI1NiJ9");
+
+        cache.offer(segment, 0, segment.length, HEADER);
+        cache.offer(segment, 0, segment.length, HEADER);
+        assertNull(cache.get(segment, 0, segment.length));
+        assertEquals(0, cache.size());
+
+        cache.offer(segment, 0, segment.length, HEADER);
+        assertSame(HEADER, cache.get(segment, 0, segment.length));
+        assertEquals(1, cache.size());
+    }
+
+
+    @Test
+    void keepsItsOwnCopyOfTheSegment() {
+        HeaderCache cache = new HeaderCache(8, 1);
+        byte[] array = bytes("..eyJhbGciOiJIUzI1NiJ9..");
+        byte[] segment = Arrays.copyOfRange(array, 2, array.length - 2);
+
+        cache.offer(array, 2, array.length - 2, HEADER);
+        Arrays.fill(array, (byte) 'A');
+
+        assertSame(HEADER, cache.get(segment, 0, segment.length));
+        assertNull(cache.get(array, 2, array.length - 2));
+    }
+
+
+    @Test
+    void decodingGoesThroughTheCache() {
+        HeaderCache cache = new HeaderCache(8, 2);
+        JWT jwt = new JWT(cache);
+
+        for (int i = 0; i < 3; i++) {
+            IDecodedJWT decoded = jwt.decodeJwt(TOKEN);
+            assertEquals("key", decoded.getKeyId());
+        }
+        assertEquals(1, cache.hitCount());
+        assertEquals(2, cache.missCount());
+    }
+
+
+    @Test
+    void hashesAreSeededPerCache() {
+        byte[] first = bytes("eyJhbGciOiJIUzI1NiJ9");
+        byte[] second = bytes("eyJhbGciOiJSUzI1NiJ9");
+        int admitted = 0;
+        int caches = 200;
+        // one sighting each only admits the second header when both share a counter, which depends on the seed
+        for (int i = 0; i < caches; i++) {
+            HeaderCache cache = new HeaderCache(1, 2);
+            cache.offer(first, 0, first.length, HEADER);
+            cache.offer(second, 0, second.length, HEADER);
+            if (cache.get(second, 0, second.length) != null) {
+                admitted++;
+            }
+        }
+        assertTrue(admitted > 0 && admitted < caches, "admitted in " + admitted + " of " + caches);
+    }
+
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.US_ASCII);
+    }
+}
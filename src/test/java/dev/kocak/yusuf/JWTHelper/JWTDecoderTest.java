@@ -0,0 +1,91 @@
+package dev.kocak.yusuf.JWTHelper;
+
+import dev.kocak.yusuf.JWTHelper.algorithms.Algorithm;
+import dev.kocak.yusuf.JWTHelper.impl.JWTParser;
+import dev.kocak.yusuf.JWTHelper.model.IDecodedJWT;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+
+class JWTDecoderTest {
+
+    private static final String TOKEN = JWT.create().withIssuer("issuer").withSubject("subject")
+            .sign(Algorithm.HMAC256("secret"));
+
+
+    @Test
+    void decodesASliceOfALargerArray() {
+        byte[] array = surrounded(TOKEN, 7);
+
+        IDecodedJWT jwt = JWT.decode(array, 7, TOKEN.length());
+        assertEquals(TOKEN, jwt.getToken());
+        assertEquals("subject", jwt.getSubject());
+    }
+
+
+    @Test
+    void decodedTokensKeepTheirOwnCopy() {
+        byte[] array = surrounded(TOKEN, 3);
+        IDecodedJWT eager = JWT.decode(array, 3, TOKEN.length());
+        IDecodedJWT lazy = JWT.decodeLazily(array, 3, TOKEN.length());
+        Arrays.fill(array, (byte) 'A');
+
+        for (IDecodedJWT jwt : new IDecodedJWT[]{eager, lazy}) {
+            assertEquals(TOKEN, jwt.getToken());
+            assertEquals(TOKEN.substring(TOKEN.lastIndexOf('.') + 1), jwt.getSignature());
+            assertEquals("subject", jwt.getSubject());
+        }
+    }
+
+
+    @Test
+    void decodedBuffersKeepTheirOwnCopy() {
+        byte[] array = TOKEN.getBytes(StandardCharsets.US_ASCII);
+        ByteBuffer heap = ByteBuffer.wrap(array);
+        ByteBuffer direct = ByteBuffer.allocateDirect(array.length);
+        direct.put(array).flip();
+        IDecodedJWT fromHeap = JWT.decode(heap);
+        IDecodedJWT fromDirect = JWT.decode(direct);
+        Arrays.fill(array, (byte) 'A');
+
+        assertEquals(TOKEN, fromHeap.getToken());
+        assertEquals(TOKEN, fromDirect.getToken());
+        assertEquals(0, heap.position());
+    }
+
+
+    @Test
+    void serializesOnlyTheTokensBytes() throws Exception {
+        byte[] array = surrounded(TOKEN, 64 * 1024);
+        IDecodedJWT jwt = new JWTDecoder(JWTParser.getDefault(), null, array, 64 * 1024, TOKEN.length());
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(jwt);
+        }
+        assertTrue(bytes.size() < 64 * 1024, "serialized " + bytes.size() + " bytes");
+
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            IDecodedJWT read = (IDecodedJWT) in.readObject();
+            assertEquals(TOKEN, read.getToken());
+            assertEquals("subject", read.getSubject());
+            assertEquals("issuer", read.getIssuer());
+        }
+    }
+
+    private static byte[] surrounded(String token, int padding) {
+        byte[] array = new byte[token.length() + 2 * padding];
+        Arrays.fill(array, (byte) '.');
+        System.arraycopy(token.getBytes(StandardCharsets.US_ASCII), 0, array, padding, token.length());
+        return array;
+    }
+}
@@ -0,0 +1,179 @@
+package dev.kocak.yusuf.JWTHelper;
+
+import dev.kocak.yusuf.JWTHelper.algorithms.Algorithm;
+import dev.kocak.yusuf.JWTHelper.exceptions.SignatureVerificationException;
+import dev.kocak.yusuf.JWTHelper.model.IAsyncRSAKeyProvider;
+import dev.kocak.yusuf.JWTHelper.model.IDecodedJWT;
+import dev.kocak.yusuf.JWTHelper.model.IJWTVerifier;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.NoSuchAlgorithmException;
+import java.security.interfaces.RSAPrivateKey;
+import java.security.interfaces.RSAPublicKey;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+
+class JWTVerifierTest {
+
+    private static final Algorithm ALGORITHM = Algorithm.HMAC256("secret");
+    private static final String TOKEN = JWT.create().withIssuer("issuer").withSubject("subject").sign(ALGORITHM);
+
+    private final IJWTVerifier verifier = JWT.require(ALGORITHM).withIssuer("issuer").build();
+
+
+    @Test
+    void verifiesSlices() {
+        String text = "Bearer " + TOKEN + " trailing";
+        byte[] array = text.getBytes(StandardCharsets.US_ASCII);
+
+        assertEquals(TOKEN, verifier.verify(text, 7, 7 + TOKEN.length()).getToken());
+        assertEquals(TOKEN, verifier.verify(array, 7, TOKEN.length()).getToken());
+        assertEquals(TOKEN, verifier.verify(ByteBuffer.wrap(array, 7, TOKEN.length())).getToken());
+        assertTrue(verifier.tryVerify(array, 7, TOKEN.length(), new VerificationResult()).isValid());
+    }
+
+
+    @Test
+    void verifiedTokensDoNotReadTheCallersArray() {
+        byte[] array = TOKEN.getBytes(StandardCharsets.US_ASCII);
+        IDecodedJWT verified = verifier.verify(array, 0, array.length);
+        VerificationResult result = verifier.tryVerify(array, 0, array.length, new VerificationResult());
+        IDecodedJWT fromBuffer = verifier.verify(ByteBuffer.wrap(array));
+        Arrays.fill(array, (byte) 'A');
+
+        String[] parts = TOKEN.split("\\.");
+        for (IDecodedJWT jwt : new IDecodedJWT[]{verified, result.getDecodedJWT(), fromBuffer}) {
+            assertEquals(TOKEN, jwt.getToken());
+            assertEquals(parts[0], jwt.getHeader());
+            assertEquals(parts[1], jwt.getPayload());
+            assertEquals(parts[2], jwt.getSignature());
+            assertEquals("subject", jwt.getSubject());
+        }
+    }
+
+
+    @Test
+    void rejectsASliceWithABadSignature() {
+        String forged = TOKEN.substring(0, TOKEN.lastIndexOf('.') + 1) + "AAAA";
+        byte[] array = forged.getBytes(StandardCharsets.US_ASCII);
+
+        VerificationResult result = verifier.tryVerify(array, 0, array.length, new VerificationResult());
+        assertEquals(VerificationResult.Reason.INVALID_SIGNATURE, result.getReason());
+    }
+
+
+    @Test
+    void checkedClaimsSurviveAProjection() {
+        String token = JWT.create().withIssuer("issuer").withClaim("tenant", "acme").withClaim("role", "admin")
+                .sign(ALGORITHM);
+        IJWTVerifier projected = JWT.require(ALGORITHM).withClaim("tenant", "acme").withClaimProjection("role")
+                .build();
+        IJWTVerifier rejecting = JWT.require(ALGORITHM).withClaim("tenant", "other").withClaimProjection("role")
+                .build();
+
+        IDecodedJWT jwt = projected.verify(token);
+        assertEquals("admin", jwt.getClaim("role").asString());
+        assertEquals("acme", jwt.getClaim("tenant").asString());
+        assertEquals(VerificationResult.Reason.INCORRECT_CLAIM,
+                rejecting.tryVerify(token, new VerificationResult()).getReason());
+    }
+
+
+    @Test
+    void concurrentAsyncVerificationsShareOneKeyLookup() throws NoSuchAlgorithmException {
+        KeyPair keys = rsaKeys();
+        String token = JWT.create().withKeyId("kid").withIssuer("issuer")
+                .sign(Algorithm.RSA256((RSAPublicKey) keys.getPublic(), (RSAPrivateKey) keys.getPrivate()));
+        CompletableFuture<RSAPublicKey> key = new CompletableFuture<>();
+        AsyncKeys provider = new AsyncKeys(key);
+        Queue<Runnable> tasks = new ArrayDeque<>();
+        IJWTVerifier async = JWT.require(Algorithm.RSA256(provider)).withIssuer("issuer")
+                .withAsyncExecutor(tasks::add).build();
+        List<CompletableFuture<IDecodedJWT>> futures = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            futures.add(async.verifyAsync(token));
+        }
+        runAll(tasks);
+        assertEquals(1, provider.calls.get());
+
+        key.complete((RSAPublicKey) keys.getPublic());
+        runAll(tasks);
+        for (CompletableFuture<IDecodedJWT> future : futures) {
+            assertEquals("issuer", future.join().getIssuer());
+        }
+    }
+
+
+    @Test
+    void asyncVerificationFailsWhenTheKeyCantBeLoaded() throws NoSuchAlgorithmException {
+        KeyPair keys = rsaKeys();
+        String token = JWT.create().withKeyId("kid")
+                .sign(Algorithm.RSA256((RSAPublicKey) keys.getPublic(), (RSAPrivateKey) keys.getPrivate()));
+        CompletableFuture<RSAPublicKey> key = new CompletableFuture<>();
+        key.completeExceptionally(new IllegalStateException("unavailable"));
+        IJWTVerifier async = JWT.require(Algorithm.RSA256(new AsyncKeys(key))).build();
+
+        CompletionException e = assertThrows(CompletionException.class, () -> async.verifyAsync(token).join());
+        assertTrue(e.getCause() instanceof SignatureVerificationException);
+    }
+
+
+    @Test
+    void asyncVerificationRejectsABadSignature() {
+        String forged = TOKEN.substring(0, TOKEN.lastIndexOf('.') + 1) + "AAAA";
+
+        CompletionException e = assertThrows(CompletionException.class, () -> verifier.verifyAsync(forged).join());
+        assertTrue(e.getCause() instanceof SignatureVerificationException);
+        assertEquals("subject", verifier.verifyAsync(TOKEN).join().getSubject());
+    }
+
+    private static void runAll(Queue<Runnable> tasks) {
+        for (Runnable task = tasks.poll(); task != null; task = tasks.poll()) {
+            task.run();
+        }
+    }
+
+    private static KeyPair rsaKeys() throws NoSuchAlgorithmException {
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+        generator.initialize(2048);
+        return generator.generateKeyPair();
+    }
+
+    private static final class AsyncKeys implements IAsyncRSAKeyProvider {
+        private final CompletableFuture<RSAPublicKey> key;
+        private final AtomicInteger calls = new AtomicInteger();
+
+        AsyncKeys(CompletableFuture<RSAPublicKey> key) {
+            this.key = key;
+        }
+
+        @Override
+        public CompletableFuture<RSAPublicKey> getPublicKeyByIdAsync(String keyId) {
+            calls.incrementAndGet();
+            return key;
+        }
+
+        @Override
+        public RSAPrivateKey getPrivateKey() {
+            return null;
+        }
+
+        @Override
+        public String getPrivateKeyId() {
+            return null;
+        }
+    }
+}
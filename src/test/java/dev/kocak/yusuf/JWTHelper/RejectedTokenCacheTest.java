@@ -0,0 +1,92 @@
+package dev.kocak.yusuf.JWTHelper;
+
+import dev.kocak.yusuf.JWTHelper.algorithms.Algorithm;
+import dev.kocak.yusuf.JWTHelper.exceptions.JWTDecodeException;
+import dev.kocak.yusuf.JWTHelper.exceptions.JWTVerificationException;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+
+class RejectedTokenCacheTest {
+
+    private static final long NOW = 1_700_000_000L;
+    private static final long WINDOW = 30;
+
+    private final RejectedTokenCache cache = new RejectedTokenCache(64, WINDOW);
+    private final ClaimCheckPlan claimChecks = new ClaimCheckPlan(Collections.emptyList(), 0, 0, 0, false,
+            Clock.fixed(Instant.ofEpochSecond(NOW), ZoneOffset.UTC));
+    private final Object owner = new Object();
+    private final byte[] token = JWT.create().withSubject("subject").sign(Algorithm.HMAC256("secret"))
+            .getBytes(StandardCharsets.US_ASCII);
+
+
+    @Test
+    void replaysABadSignatureToItsOwner() {
+        cache.offer(owner, token, 0, token.length, NOW, invalidSignature());
+
+        VerificationResult result = new VerificationResult();
+        assertTrue(cache.replay(owner, claimChecks, token, 0, token.length, NOW, result));
+        assertEquals(VerificationResult.Reason.INVALID_SIGNATURE, result.getReason());
+    }
+
+
+    @Test
+    void doesNotReplayToAnotherOwner() {
+        cache.offer(owner, token, 0, token.length, NOW, invalidSignature());
+
+        assertFalse(cache.replay(new Object(), claimChecks, token, 0, token.length, NOW, new VerificationResult()));
+    }
+
+
+    @Test
+    void forgetsTheRejectionAfterTheWindow() {
+        cache.offer(owner, token, 0, token.length, NOW, invalidSignature());
+
+        assertTrue(cache.replay(owner, claimChecks, token, 0, token.length, NOW + WINDOW, new VerificationResult()));
+        assertFalse(cache.replay(owner, claimChecks, token, 0, token.length, NOW + WINDOW + 1,
+                new VerificationResult()));
+    }
+
+
+    @Test
+    void replaysAMalformedTokenWithAnExceptionOfItsOwn() {
+        cache.offer(owner, token, 0, token.length, NOW, new JWTDecodeException("The Token is broken."));
+
+        VerificationResult first = new VerificationResult();
+        VerificationResult second = new VerificationResult();
+        assertTrue(cache.replay(owner, claimChecks, token, 0, token.length, NOW, first));
+        assertTrue(cache.replay(owner, claimChecks, token, 0, token.length, NOW, second));
+        assertEquals(VerificationResult.Reason.MALFORMED, first.getReason());
+
+        JWTVerificationException firstException = first.toException();
+        JWTVerificationException secondException = second.toException();
+        assertTrue(firstException instanceof JWTDecodeException);
+        assertEquals("The Token is broken.", firstException.getMessage());
+        assertNotSame(firstException, secondException);
+        assertEquals(0, firstException.getStackTrace().length);
+    }
+
+
+    @Test
+    void doesNotRememberOtherRejections() {
+        VerificationResult rejected = new VerificationResult();
+        rejected.reject(VerificationResult.Reason.MISSING_CLAIM, null, "iss", null);
+        cache.offer(owner, token, 0, token.length, NOW, rejected);
+
+        assertEquals(0, cache.size());
+        assertFalse(cache.replay(owner, claimChecks, token, 0, token.length, NOW, new VerificationResult()));
+    }
+
+    private static VerificationResult invalidSignature() {
+        VerificationResult result = new VerificationResult();
+        result.reject(VerificationResult.Reason.INVALID_SIGNATURE, null, null, null);
+        return result;
+    }
+}
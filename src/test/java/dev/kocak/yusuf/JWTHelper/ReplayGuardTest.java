@@ -0,0 +1,121 @@
+package dev.kocak.yusuf.JWTHelper;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+
+class ReplayGuardTest {
+
+    private static final long NOW = 1_700_000_000L;
+    private static final int THREADS = 8;
+
+    private final ReplayGuard guard = new ReplayGuard();
+
+
+    @Test
+    void onlyTheFirstUseOfAnIdPasses() {
+        assertTrue(guard.firstUse("id", NOW + 60, NOW));
+        assertFalse(guard.firstUse("id", NOW + 60, NOW));
+        assertTrue(guard.firstUse("other", NOW + 60, NOW));
+        assertEquals(1, guard.replayCount());
+    }
+
+
+    @Test
+    void anIdCanBeUsedAgainOnceItExpired() {
+        assertTrue(guard.firstUse("id", NOW + 60, NOW));
+        assertFalse(guard.firstUse("id", NOW + 60, NOW + 60));
+        assertTrue(guard.firstUse("id", NOW + 120, NOW + 61));
+    }
+
+
+    @Test
+    void idsKeptForMonthsStillExpire() {
+        long later = NOW + 200L * 24 * 60 * 60;
+        assertTrue(guard.firstUse("id", later, NOW));
+        assertFalse(guard.firstUse("id", later, later - 1));
+        assertTrue(guard.firstUse("id", later + 60, later + 1));
+    }
+
+
+    @Test
+    void idsExpireOneByOneAsTimeMovesOn() {
+        for (int i = 1; i <= 100; i++) {
+            assertTrue(guard.firstUse("id-" + i, NOW + i, NOW));
+        }
+        for (int i = 1; i <= 100; i++) {
+            assertEquals(i < 50, guard.firstUse("id-" + i, NOW + 200, NOW + 50), "id-" + i);
+        }
+    }
+
+
+    @Test
+    void idsSurviveALongIdleGap() {
+        long gap = 1L << 26;
+        assertTrue(guard.firstUse("short", NOW + 10, NOW));
+        assertTrue(guard.firstUse("long", NOW + 2 * gap, NOW));
+
+        assertTrue(guard.firstUse("short", NOW + gap + 10, NOW + gap));
+        assertFalse(guard.firstUse("long", NOW + 2 * gap, NOW + gap));
+        assertFalse(guard.firstUse("long", NOW + 2 * gap, NOW + 2 * gap));
+        assertTrue(guard.firstUse("long", NOW + 3 * gap, NOW + 2 * gap + 1));
+    }
+
+
+    @Test
+    void concurrentUsesOfAnIdLetExactlyOneThrough() throws Exception {
+        for (int round = 0; round < 100; round++) {
+            String jwtId = "id-" + round;
+            List<Boolean> outcomes = runConcurrently(() -> guard.firstUse(jwtId, NOW + 60, NOW));
+            assertEquals(1, outcomes.stream().filter(Boolean::booleanValue).count());
+        }
+        assertEquals(100L * (THREADS - 1), guard.replayCount());
+    }
+
+
+    @Test
+    void concurrentUsesOfDifferentIdsAllPass() throws Exception {
+        List<Boolean> outcomes = runConcurrently(() -> {
+            boolean allFirst = true;
+            String thread = Thread.currentThread().getName();
+            for (int i = 0; i < 1000; i++) {
+                allFirst &= guard.firstUse(thread + '-' + i, NOW + 60, NOW);
+            }
+            return allFirst;
+        });
+        assertFalse(outcomes.contains(false));
+        assertEquals(THREADS * 1000, guard.size());
+        assertEquals(0, guard.replayCount());
+    }
+
+    private static List<Boolean> runConcurrently(Callable<Boolean> task) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<Boolean>> futures = new ArrayList<>();
+            for (int i = 0; i < THREADS; i++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    return task.call();
+                }));
+            }
+            start.countDown();
+            List<Boolean> outcomes = new ArrayList<>();
+            for (Future<Boolean> future : futures) {
+                outcomes.add(future.get());
+            }
+            return outcomes;
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
@@ -0,0 +1,161 @@
+package dev.kocak.yusuf.JWTHelper;
+
+import dev.kocak.yusuf.JWTHelper.algorithms.Algorithm;
+import dev.kocak.yusuf.JWTHelper.model.IDecodedJWT;
+import dev.kocak.yusuf.JWTHelper.model.IJWTVerifier;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+
+class RevocationListTest {
+
+    private static final Algorithm ALGORITHM = Algorithm.HMAC256("secret");
+    private static final long NOW = 1_700_000_000L;
+
+    private final MutableClock clock = new MutableClock(NOW);
+    private final RevocationList list = new RevocationList(16, 0, clock);
+
+
+    @Test
+    void revokesByJwtId() {
+        list.revoke(token("a", NOW + 60));
+
+        assertTrue(list.isRevoked(token("a", NOW + 60)));
+        assertFalse(list.isRevoked(token("b", NOW + 60)));
+        assertEquals(1, list.hitCount());
+    }
+
+
+    @Test
+    void revokesBySubjectAndIssuedAt() {
+        Instant issuedAt = Instant.ofEpochSecond(NOW - 10);
+        list.revoke(JWT.decode(JWT.create().withSubject("subject").withIssuedAt(issuedAt).sign(ALGORITHM)));
+
+        assertTrue(list.isRevoked(JWT.decode(JWT.create().withSubject("subject").withIssuedAt(issuedAt)
+                .sign(ALGORITHM))));
+        assertFalse(list.isRevoked(JWT.decode(JWT.create().withSubject("subject")
+                .withIssuedAt(issuedAt.plusSeconds(1)).sign(ALGORITHM))));
+        assertFalse(list.isRevoked(JWT.decode(JWT.create().withSubject("subject").sign(ALGORITHM))));
+    }
+
+
+    @Test
+    void keepsTokensRevokedForTheLeeway() {
+        RevocationList lenient = new RevocationList(16, 30, clock);
+        lenient.revoke("a", Instant.ofEpochSecond(NOW + 10));
+
+        clock.now = NOW + 40;
+        assertTrue(lenient.isRevoked(token("a", NOW + 10)));
+        clock.now = NOW + 41;
+        assertFalse(lenient.isRevoked(token("a", NOW + 10)));
+    }
+
+
+    @Test
+    void keepsTokensWithoutAnExpiryRevoked() {
+        list.revoke("a", null);
+
+        clock.now = NOW + 100L * 365 * 24 * 3600;
+        assertTrue(list.isRevoked(token("a", NOW)));
+    }
+
+
+    @Test
+    void lookupsPurgeExpiredEntriesAndRebuildTheFilter() {
+        list.revoke("a", Instant.ofEpochSecond(NOW + 10));
+        list.revoke("b", Instant.ofEpochSecond(NOW + 1_000));
+        assertTrue(list.isRevoked(token("a", NOW + 10)));
+
+        clock.now = NOW + 3_600;
+        long filtered = list.filteredCount();
+        assertFalse(list.isRevoked(token("b", NOW + 1_000)));
+        assertEquals(0, list.size());
+        // the filter was built again without the purged entries, so the lookup doesn't get to the map
+        assertEquals(filtered + 1, list.filteredCount());
+    }
+
+
+    @Test
+    void failsOnceFullOfEntriesThatHaveNotExpired() {
+        RevocationList small = new RevocationList(4, 2, 0, clock);
+        small.revoke("a", Instant.ofEpochSecond(NOW + 10));
+        small.revoke("b", Instant.ofEpochSecond(NOW + 20));
+
+        assertThrows(IllegalStateException.class, () -> small.revoke("c", Instant.ofEpochSecond(NOW + 30)));
+        small.revoke("a", Instant.ofEpochSecond(NOW + 15));
+        assertEquals(2, small.size());
+
+        // room is made by purging what has expired, never by dropping a revoked token early
+        clock.now = NOW + 16;
+        small.revoke("c", Instant.ofEpochSecond(NOW + 30));
+        assertFalse(small.isRevoked(token("a", NOW + 15)));
+        assertTrue(small.isRevoked(token("b", NOW + 20)));
+        assertTrue(small.isRevoked(token("c", NOW + 30)));
+    }
+
+
+    @Test
+    void ignoresTokensThatHaveAlreadyExpired() {
+        list.revoke("a", Instant.ofEpochSecond(NOW - 1));
+
+        assertEquals(0, list.size());
+    }
+
+
+    @Test
+    void verifiersTurnDownRevokedTokens() {
+        IJWTVerifier verifier = ((JWTVerifier.BaseVerification) JWT.require(ALGORITHM).withRevocationCheck(list))
+                .build(clock);
+        String token = JWT.create().withJWTId("a").withExpiresAt(Instant.ofEpochSecond(NOW + 60)).sign(ALGORITHM);
+        assertTrue(verifier.tryVerify(token, new VerificationResult()).isValid());
+
+        list.revoke(JWT.decode(token));
+        assertEquals(VerificationResult.Reason.REVOKED,
+                verifier.tryVerify(token, new VerificationResult()).getReason());
+    }
+
+
+    @Test
+    void rejectsInvalidArguments() {
+        assertThrows(IllegalArgumentException.class, () -> new RevocationList(0));
+        assertThrows(IllegalArgumentException.class, () -> new RevocationList(16, 0, 0, clock));
+        assertThrows(IllegalArgumentException.class, () -> new RevocationList(16, -1, clock));
+        assertThrows(IllegalArgumentException.class, () -> new RevocationList(16, 0, null));
+        assertThrows(IllegalArgumentException.class,
+                () -> list.revoke(JWT.decode(JWT.create().withIssuer("issuer").sign(ALGORITHM))));
+    }
+
+    private static IDecodedJWT token(String jwtId, long expiresAt) {
+        return JWT.decode(JWT.create().withJWTId(jwtId).withExpiresAt(Instant.ofEpochSecond(expiresAt))
+                .sign(ALGORITHM));
+    }
+
+    private static final class MutableClock extends Clock {
+        private volatile long now;
+
+        MutableClock(long now) {
+            this.now = now;
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return Instant.ofEpochSecond(now);
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package dev.kocak.yusuf.JWTHelper;
+
+import dev.kocak.yusuf.JWTHelper.algorithms.Algorithm;
+import dev.kocak.yusuf.JWTHelper.exceptions.SignatureVerificationException;
+import dev.kocak.yusuf.JWTHelper.impl.JWTParser;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+
+class SingleFlightTest {
+
+    private static final String TOKEN = JWT.create().withSubject("subject").sign(Algorithm.HMAC256("secret"));
+
+    private final SingleFlight singleFlight = new SingleFlight();
+    private final AtomicInteger calls = new AtomicInteger();
+    private final CountDownLatch entered = new CountDownLatch(1);
+    private final CountDownLatch release = new CountDownLatch(1);
+
+
+    @Test
+    void followerGetsTheLeadersValidOutcome() throws Exception {
+        byte[] leaderBytes = bytes();
+        VerificationResult leaderResult = new VerificationResult();
+        Thread leader = new Thread(() -> {
+            singleFlight.verify(leaderBytes, 0, leaderBytes.length, leaderResult, this::acceptAfterRelease);
+            // the caller reuses its array as soon as verify returns
+            Arrays.fill(leaderBytes, (byte) 'x');
+        });
+        leader.start();
+        assertTrue(entered.await(10, TimeUnit.SECONDS));
+
+        VerificationResult followerResult = new VerificationResult();
+        Thread follower = startFollower(followerResult);
+        release.countDown();
+        leader.join();
+        follower.join();
+
+        assertEquals(1, calls.get());
+        assertTrue(followerResult.isValid());
+        assertNotSame(leaderResult.getDecodedJWT(), followerResult.getDecodedJWT());
+        assertEquals("subject", followerResult.getDecodedJWT().getSubject());
+    }
+
+
+    @Test
+    void followerVerifiesOnItsOwnWhenTheLeaderRejectsWithAnException() throws Exception {
+        Thread leader = startLeader(new VerificationResult(), (token, offset, length, result) -> {
+            awaitRelease();
+            return result.reject(new SignatureVerificationException(Algorithm.none()));
+        });
+        assertTrue(entered.await(10, TimeUnit.SECONDS));
+
+        VerificationResult followerResult = new VerificationResult();
+        Thread follower = startFollower(followerResult);
+        release.countDown();
+        leader.join();
+        follower.join();
+
+        assertEquals(2, calls.get());
+        assertTrue(followerResult.isValid());
+    }
+
+
+    @Test
+    void followerVerifiesOnItsOwnWhenTheLeaderThrows() throws Exception {
+        Thread leader = startLeader(new VerificationResult(), (token, offset, length, result) -> {
+            awaitRelease();
+            throw new IllegalStateException("failed");
+        });
+        assertTrue(entered.await(10, TimeUnit.SECONDS));
+
+        VerificationResult followerResult = new VerificationResult();
+        Thread follower = startFollower(followerResult);
+        release.countDown();
+        leader.join();
+        follower.join();
+
+        assertEquals(2, calls.get());
+        assertTrue(followerResult.isValid());
+    }
+
+
+    @Test
+    void differentTokensAreVerifiedSeparately() {
+        byte[] first = bytes();
+        byte[] second = JWT.create().withSubject("other").sign(Algorithm.HMAC256("secret"))
+                .getBytes(StandardCharsets.US_ASCII);
+        release.countDown();
+        VerificationResult result = new VerificationResult();
+        assertTrue(singleFlight.verify(first, 0, first.length, result, this::acceptAfterRelease));
+        assertTrue(singleFlight.verify(second, 0, second.length, result, this::acceptAfterRelease));
+        assertEquals(2, calls.get());
+        assertEquals("other", result.getDecodedJWT().getSubject());
+    }
+
+    private Thread startLeader(VerificationResult result, SingleFlight.Verification verification) {
+        byte[] token = bytes();
+        Thread leader = new Thread(() -> singleFlight.verify(token, 0, token.length, result,
+                (bytes, offset, length, shared) -> {
+                    calls.incrementAndGet();
+                    entered.countDown();
+                    return verification.verify(bytes, offset, length, shared);
+                }));
+        // a leader that throws is one of the cases, it mustn't end up in the test output
+        leader.setUncaughtExceptionHandler((thread, e) -> { });
+        leader.start();
+        return leader;
+    }
+
+    // only returns once the follower is waiting for the leader
+    private Thread startFollower(VerificationResult result) throws InterruptedException {
+        byte[] token = bytes();
+        Thread follower = new Thread(() -> singleFlight.verify(token, 0, token.length, result,
+                (bytes, offset, length, shared) -> {
+                    calls.incrementAndGet();
+                    return shared.accept(new JWTDecoder(JWTParser.getDefault(), null, bytes, offset, length));
+                }));
+        follower.start();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (follower.getState() != Thread.State.WAITING && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+        assertEquals(Thread.State.WAITING, follower.getState());
+        return follower;
+    }
+
+    private boolean acceptAfterRelease(byte[] token, int offset, int length, VerificationResult result) {
+        calls.incrementAndGet();
+        entered.countDown();
+        awaitRelease();
+        return result.accept(new JWTDecoder(JWTParser.getDefault(), null, token, offset, length));
+    }
+
+    private void awaitRelease() {
+        try {
+            assertTrue(release.await(10, TimeUnit.SECONDS));
+        } catch (InterruptedException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static byte[] bytes() {
+        return TOKEN.getBytes(StandardCharsets.US_ASCII);
+    }
+}
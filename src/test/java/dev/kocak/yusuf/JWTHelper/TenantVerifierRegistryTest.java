@@ -0,0 +1,197 @@
+package dev.kocak.yusuf.JWTHelper;
+
+import dev.kocak.yusuf.JWTHelper.algorithms.Algorithm;
+import dev.kocak.yusuf.JWTHelper.exceptions.IncorrectClaimException;
+import dev.kocak.yusuf.JWTHelper.model.IJWTVerifier;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+
+class TenantVerifierRegistryTest {
+
+    private static final Algorithm FIRST = Algorithm.HMAC256("first");
+    private static final Algorithm SECOND = Algorithm.HMAC256("second");
+
+    private final Map<String, AtomicInteger> calls = new ConcurrentHashMap<>();
+    private final Function<String, IJWTVerifier> loader = issuer -> {
+        calls.computeIfAbsent(issuer, name -> new AtomicInteger()).incrementAndGet();
+        if (issuer.equals("first")) {
+            return JWT.require(FIRST).withIssuer("first").build();
+        }
+        return issuer.equals("second") ? JWT.require(SECOND).withIssuer("second").build() : null;
+    };
+
+
+    @Test
+    void routesByIssuer() {
+        TenantVerifierRegistry registry = new TenantVerifierRegistry(loader);
+
+        assertEquals("first", registry.verify(token("first", FIRST)).getIssuer());
+        assertEquals("second", registry.verify(token("second", SECOND)).getIssuer());
+        assertEquals(VerificationResult.Reason.INVALID_SIGNATURE,
+                registry.tryVerify(token("first", SECOND), new VerificationResult()).getReason());
+    }
+
+
+    @Test
+    void loadsEveryIssuerOnce() {
+        TenantVerifierRegistry registry = new TenantVerifierRegistry(loader);
+        for (int i = 0; i < 3; i++) {
+            registry.verify(token("first", FIRST));
+        }
+
+        assertEquals(1, calls.get("first").get());
+        assertEquals(2, registry.hitCount());
+        assertEquals(1, registry.missCount());
+        assertEquals(1, registry.size());
+    }
+
+
+    @Test
+    void rejectsUnknownAndMissingIssuers() {
+        TenantVerifierRegistry registry = new TenantVerifierRegistry(loader);
+
+        assertThrows(IncorrectClaimException.class, () -> registry.verify(token("unknown", FIRST)));
+        VerificationResult unknown = registry.tryVerify(token("unknown", FIRST), new VerificationResult());
+        assertEquals(VerificationResult.Reason.INCORRECT_CLAIM, unknown.getReason());
+        assertEquals(1, calls.get("unknown").get());
+        VerificationResult missing = registry.tryVerify(JWT.create().sign(FIRST), new VerificationResult());
+        assertEquals(VerificationResult.Reason.MISSING_CLAIM, missing.getReason());
+    }
+
+
+    @Test
+    void unknownIssuersDoNotPushOutTenants() {
+        TenantVerifierRegistry registry = new TenantVerifierRegistry(loader, 4);
+        registry.verify(token("first", FIRST));
+        for (int i = 0; i < 5_000; i++) {
+            registry.tryVerify(token("unknown-" + i, FIRST), new VerificationResult());
+        }
+
+        registry.verify(token("first", FIRST));
+        assertEquals(1, calls.get("first").get());
+        assertEquals(0, registry.evictionCount());
+        assertEquals(1, registry.size());
+    }
+
+
+    @Test
+    void concurrentTokensOfAnIssuerShareOneLoad() throws Exception {
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        TenantVerifierRegistry registry = new TenantVerifierRegistry(blocking(entered, release, false));
+        String token = token("first", FIRST);
+        List<VerificationResult> results = new ArrayList<>();
+        List<Thread> threads = startAll(registry, token, results, entered);
+
+        release.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertEquals(1, calls.get("first").get());
+        for (VerificationResult result : results) {
+            assertTrue(result.isValid());
+        }
+    }
+
+
+    @Test
+    void aFailedLoadFailsEveryWaitingToken() throws Exception {
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        TenantVerifierRegistry registry = new TenantVerifierRegistry(blocking(entered, release, true));
+        String token = token("first", FIRST);
+        List<VerificationResult> results = new ArrayList<>();
+        List<Thread> threads = startAll(registry, token, results, entered);
+
+        release.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertEquals(1, calls.get("first").get());
+        for (VerificationResult result : results) {
+            assertEquals(VerificationResult.Reason.ERROR, result.getReason());
+            assertEquals("unavailable", result.toException().getCause().getMessage());
+        }
+
+        // nothing is remembered about a failed load, the next token asks the loader again
+        registry.tryVerify(token, new VerificationResult());
+        assertEquals(2, calls.get("first").get());
+    }
+
+
+    @Test
+    void verifiesAsynchronously() {
+        TenantVerifierRegistry registry = new TenantVerifierRegistry(loader);
+
+        assertEquals("second", registry.verifyAsync(token("second", SECOND)).join().getIssuer());
+        CompletionException e = assertThrows(CompletionException.class,
+                () -> registry.verifyAsync(token("unknown", FIRST)).join());
+        assertTrue(e.getCause() instanceof IncorrectClaimException);
+    }
+
+
+    @Test
+    void invalidatedIssuersAreLoadedAgain() {
+        TenantVerifierRegistry registry = new TenantVerifierRegistry(loader);
+        registry.verify(token("first", FIRST));
+        registry.invalidate("first");
+        registry.verify(token("first", FIRST));
+
+        assertEquals(2, calls.get("first").get());
+    }
+
+    // the first call blocks until released, so the other threads find its load in flight
+    private Function<String, IJWTVerifier> blocking(CountDownLatch entered, CountDownLatch release, boolean fail) {
+        return issuer -> {
+            entered.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            if (fail && calls.isEmpty()) {
+                calls.computeIfAbsent(issuer, name -> new AtomicInteger()).incrementAndGet();
+                throw new IllegalStateException("unavailable");
+            }
+            return loader.apply(issuer);
+        };
+    }
+
+    private static List<Thread> startAll(TenantVerifierRegistry registry, String token,
+                                         List<VerificationResult> results, CountDownLatch entered)
+            throws InterruptedException {
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            VerificationResult result = new VerificationResult();
+            results.add(result);
+            Thread thread = new Thread(() -> registry.tryVerify(token, result));
+            threads.add(thread);
+            thread.start();
+            if (i == 0) {
+                entered.await();
+            }
+        }
+        // every other thread is parked on the first one's load before it's let go
+        for (Thread thread : threads.subList(1, threads.size())) {
+            while (thread.getState() != Thread.State.WAITING) {
+                Thread.sleep(1);
+            }
+        }
+        return threads;
+    }
+
+    private static String token(String issuer, Algorithm algorithm) {
+        return JWT.create().withIssuer(issuer).sign(algorithm);
+    }
+}
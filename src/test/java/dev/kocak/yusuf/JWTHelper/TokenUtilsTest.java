@@ -0,0 +1,85 @@
+package dev.kocak.yusuf.JWTHelper;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+
+class TokenUtilsTest {
+
+    private static final String ALPHABET = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789-_";
+
+
+    @Test
+    void decodesWhatTheJdkEncodes() {
+        Random random = new Random(42);
+        for (int length = 0; length < 300; length++) {
+            byte[] data = new byte[length];
+            random.nextBytes(data);
+            assertDecodes(data, Base64.getUrlEncoder().withoutPadding().encode(data));
+            assertDecodes(data, Base64.getUrlEncoder().encode(data));
+        }
+    }
+
+
+    @Test
+    void decodesWithinALargerArray() {
+        byte[] data = "{\"sub\":\"subject\"}".getBytes(StandardCharsets.UTF_8);
+        byte[] encoded = Base64.getUrlEncoder().withoutPadding().encode(data);
+        byte[] token = new byte[encoded.length + 10];
+        Arrays.fill(token, (byte) '.');
+        System.arraycopy(encoded, 0, token, 5, encoded.length);
+
+        assertArrayEquals(data, TokenUtils.decodeBase64Url(token, 5, 5 + encoded.length));
+    }
+
+
+    @Test
+    void rejectsWhatTheJdkRejects() {
+        String[] inputs = {"A", "AAAAA", "A===", "AA=", "AA==A", "AAA==", "AA+A", "AA/A", "AA A", "AA\u00e9A", "AA.A",
+                "====", "AB=C", "QUJD=", "QUJDRA=", "QUJDRA==="};
+        for (String input : inputs) {
+            byte[] bytes = input.getBytes(StandardCharsets.ISO_8859_1);
+            assertThrows(IllegalArgumentException.class, () -> Base64.getUrlDecoder().decode(bytes), input);
+            assertThrows(IllegalArgumentException.class, () -> TokenUtils.decodeBase64Url(bytes, 0, bytes.length),
+                    input);
+        }
+    }
+
+
+    @Test
+    void agreesWithTheJdkOnRandomInput() {
+        Random random = new Random(7);
+        String symbols = ALPHABET + "=+/.";
+        for (int i = 0; i < 20_000; i++) {
+            char[] chars = new char[random.nextInt(12)];
+            for (int j = 0; j < chars.length; j++) {
+                // mostly valid characters, so some of the inputs decode
+                chars[j] = random.nextInt(8) == 0 ? symbols.charAt(random.nextInt(symbols.length()))
+                        : ALPHABET.charAt(random.nextInt(ALPHABET.length()));
+            }
+            byte[] input = new String(chars).getBytes(StandardCharsets.US_ASCII);
+            byte[] expected;
+            try {
+                expected = Base64.getUrlDecoder().decode(input);
+            } catch (IllegalArgumentException e) {
+                assertThrows(IllegalArgumentException.class, () -> TokenUtils.decodeBase64Url(input, 0, input.length),
+                        new String(chars));
+                continue;
+            }
+            assertArrayEquals(expected, TokenUtils.decodeBase64Url(input, 0, input.length), new String(chars));
+        }
+    }
+
+    private static void assertDecodes(byte[] data, byte[] encoded) {
+        assertArrayEquals(data, TokenUtils.decodeBase64Url(encoded, 0, encoded.length));
+        byte[] dst = new byte[data.length + 2];
+        assertEquals(data.length, TokenUtils.decodeBase64Url(encoded, 0, encoded.length, dst));
+        assertArrayEquals(data, Arrays.copyOf(dst, data.length));
+    }
+}
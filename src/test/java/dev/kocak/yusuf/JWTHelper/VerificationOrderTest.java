@@ -0,0 +1,74 @@
+package dev.kocak.yusuf.JWTHelper;
+
+import dev.kocak.yusuf.JWTHelper.algorithms.Algorithm;
+import dev.kocak.yusuf.JWTHelper.exceptions.SignatureVerificationException;
+import dev.kocak.yusuf.JWTHelper.model.IJWTVerifier;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.Date;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+
+class VerificationOrderTest {
+
+    private static final Algorithm ALGORITHM = Algorithm.HMAC256("secret");
+    private static final Date PAST = Date.from(Instant.now().minusSeconds(60));
+    private static final Date FUTURE = Date.from(Instant.now().plusSeconds(60));
+
+    private final IJWTVerifier claimsFirst = JWT.require(ALGORITHM).withIssuer("issuer").withAudience("audience")
+            .withVerificationOrder(VerificationOrder.CLAIMS_FIRST).build();
+    private final IJWTVerifier signatureFirst = JWT.require(ALGORITHM).withIssuer("issuer").withAudience("audience")
+            .withVerificationOrder(VerificationOrder.SIGNATURE_FIRST).build();
+
+
+    @Test
+    void acceptsAValidToken() {
+        String token = JWT.create().withIssuer("issuer").withAudience("audience").withExpiresAt(FUTURE)
+                .sign(ALGORITHM);
+
+        assertEquals("issuer", claimsFirst.verify(token).getIssuer());
+        assertTrue(claimsFirst.tryVerify(token, new VerificationResult()).isValid());
+    }
+
+
+    @Test
+    void reportsEveryClaimFailureAsAnInvalidSignature() {
+        String[] tokens = {
+                JWT.create().withIssuer("issuer").withAudience("audience").withExpiresAt(PAST).sign(ALGORITHM),
+                JWT.create().withIssuer("other").withAudience("audience").sign(ALGORITHM),
+                JWT.create().withIssuer("issuer").sign(ALGORITHM),
+                JWT.create().withIssuer("issuer").withAudience("audience").withNotBefore(FUTURE).sign(ALGORITHM),
+        };
+        for (String token : tokens) {
+            VerificationResult result = claimsFirst.tryVerify(token, new VerificationResult());
+            assertEquals(VerificationResult.Reason.INVALID_SIGNATURE, result.getReason(), token);
+            assertNull(result.getClaimName(), token);
+            assertTrue(result.toException() instanceof SignatureVerificationException, token);
+            assertThrows(SignatureVerificationException.class, () -> claimsFirst.verify(token), token);
+        }
+    }
+
+
+    @Test
+    void reportsABadSignatureAsAnInvalidSignature() {
+        String token = JWT.create().withIssuer("issuer").withAudience("audience")
+                .sign(Algorithm.HMAC256("another secret"));
+
+        VerificationResult result = claimsFirst.tryVerify(token, new VerificationResult());
+        assertEquals(VerificationResult.Reason.INVALID_SIGNATURE, result.getReason());
+        assertThrows(SignatureVerificationException.class, () -> claimsFirst.verify(token));
+    }
+
+
+    @Test
+    void otherOrdersStillReportTheClaim() {
+        String token = JWT.create().withIssuer("issuer").withAudience("audience").withExpiresAt(PAST)
+                .sign(ALGORITHM);
+
+        VerificationResult result = signatureFirst.tryVerify(token, new VerificationResult());
+        assertEquals(VerificationResult.Reason.TOKEN_EXPIRED, result.getReason());
+        assertEquals(RegisteredClaims.EXPIRES_AT, result.getClaimName());
+    }
+}
@@ -0,0 +1,133 @@
+package dev.kocak.yusuf.JWTHelper;
+
+import dev.kocak.yusuf.JWTHelper.algorithms.Algorithm;
+import dev.kocak.yusuf.JWTHelper.impl.JWTParser;
+import dev.kocak.yusuf.JWTHelper.model.IDecodedJWT;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Date;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+
+class VerifiedTokenCacheTest {
+
+    private static final long NOW = 1_700_000_000L;
+
+    private final VerifiedTokenCache cache = new VerifiedTokenCache();
+    private final Object owner = new Object();
+
+
+    @Test
+    void returnsTheTokenToItsOwner() {
+        byte[] token = token(NOW + 60);
+        cache.offer(owner, decoder(token), NOW);
+
+        IDecodedJWT cached = cache.get(owner, token, 0, token.length, NOW);
+        assertNotNull(cached);
+        assertEquals("subject", cached.getSubject());
+        assertEquals(1, cache.hitCount());
+    }
+
+
+    @Test
+    void doesNotReturnTheTokenToAnotherOwner() {
+        byte[] token = token(NOW + 60);
+        cache.offer(owner, decoder(token), NOW);
+
+        assertNull(cache.get(new Object(), token, 0, token.length, NOW));
+        assertEquals(1, cache.missCount());
+    }
+
+
+    @Test
+    void dropsTheTokenOnceItExpired() {
+        byte[] token = token(NOW + 60);
+        cache.offer(owner, decoder(token), NOW);
+
+        assertNotNull(cache.get(owner, token, 0, token.length, NOW + 60));
+        assertNull(cache.get(owner, token, 0, token.length, NOW + 61));
+        assertEquals(0, cache.size());
+    }
+
+
+    @Test
+    void doesNotCacheTokensWithoutAnExpiry() {
+        byte[] token = JWT.create().withSubject("subject").sign(Algorithm.HMAC256("secret"))
+                .getBytes(StandardCharsets.US_ASCII);
+        cache.offer(owner, decoder(token), NOW);
+
+        assertEquals(0, cache.size());
+        assertNull(cache.get(owner, token, 0, token.length, NOW));
+    }
+
+
+    @Test
+    void doesNotCacheExpiredTokens() {
+        byte[] token = token(NOW - 1);
+        cache.offer(owner, decoder(token), NOW);
+
+        assertEquals(0, cache.size());
+    }
+
+
+    @Test
+    void keepsItsOwnCopyOfTheToken() {
+        byte[] token = token(NOW + 60);
+        byte[] copy = token.clone();
+        cache.offer(owner, decoder(token), NOW);
+        Arrays.fill(token, (byte) 'x');
+
+        IDecodedJWT cached = cache.get(owner, copy, 0, copy.length, NOW);
+        assertNotNull(cached);
+        assertEquals("subject", cached.getSubject());
+    }
+
+
+    @Test
+    void evictsTokensThatWereNotReadSinceTheLastSweep() {
+        byte[] first = token("a", NOW + 60);
+        byte[] second = token("b", NOW + 60);
+        byte[] third = token("c", NOW + 60);
+        byte[] fourth = token("d", NOW + 60);
+        VerifiedTokenCache small = new VerifiedTokenCache(3L * (first.length + VerifiedTokenCache.ENTRY_OVERHEAD));
+        small.offer(owner, decoder(first), NOW);
+        small.offer(owner, decoder(second), NOW);
+        small.offer(owner, decoder(third), NOW);
+        assertNotNull(small.get(owner, first, 0, first.length, NOW));
+        assertNotNull(small.get(owner, third, 0, third.length, NOW));
+
+        small.offer(owner, decoder(fourth), NOW);
+        assertEquals(1, small.evictionCount());
+        assertNull(small.get(owner, second, 0, second.length, NOW));
+        assertNotNull(small.get(owner, first, 0, first.length, NOW));
+        assertNotNull(small.get(owner, third, 0, third.length, NOW));
+        assertNotNull(small.get(owner, fourth, 0, fourth.length, NOW));
+    }
+
+
+    @Test
+    void invalidatesEverything() {
+        byte[] token = token(NOW + 60);
+        cache.offer(owner, decoder(token), NOW);
+        cache.invalidateAll();
+
+        assertEquals(0, cache.size());
+        assertNull(cache.get(owner, token, 0, token.length, NOW));
+    }
+
+    private static byte[] token(long expiresAt) {
+        return token("subject", expiresAt);
+    }
+
+    private static byte[] token(String subject, long expiresAt) {
+        return JWT.create().withSubject(subject).withExpiresAt(new Date(expiresAt * 1000))
+                .sign(Algorithm.HMAC256("secret")).getBytes(StandardCharsets.US_ASCII);
+    }
+
+    private static JWTDecoder decoder(byte[] token) {
+        return new JWTDecoder(JWTParser.getDefault(), null, token, 0, token.length);
+    }
+}
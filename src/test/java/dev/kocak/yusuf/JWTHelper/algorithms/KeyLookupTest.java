@@ -0,0 +1,89 @@
+package dev.kocak.yusuf.JWTHelper.algorithms;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+
+class KeyLookupTest {
+
+    private final KeyLookup<String> lookup = new KeyLookup<>();
+    private final AtomicInteger calls = new AtomicInteger();
+    private final CompletableFuture<String> pending = new CompletableFuture<>();
+    private final Function<String, CompletableFuture<String>> loader = keyId -> {
+        calls.incrementAndGet();
+        return pending;
+    };
+
+
+    @Test
+    void concurrentLookupsShareOneCall() {
+        CompletableFuture<String> first = lookup.get("kid", loader);
+        CompletableFuture<String> second = lookup.get("kid", loader);
+        assertEquals(1, calls.get());
+        assertSame(first, second);
+
+        pending.complete("key");
+        assertEquals("key", first.join());
+        assertEquals("key", second.join());
+    }
+
+
+    @Test
+    void differentKeyIdsAreLoadedOnTheirOwn() {
+        lookup.get("a", loader);
+        lookup.get("b", loader);
+        assertEquals(2, calls.get());
+    }
+
+
+    @Test
+    void lookupsWithoutAKeyIdAreNotShared() {
+        lookup.get(null, loader);
+        lookup.get(null, loader);
+        assertEquals(2, calls.get());
+    }
+
+
+    @Test
+    void theNextLookupAfterACompletedOneAsksAgain() {
+        lookup.get("kid", loader);
+        pending.complete("key");
+
+        lookup.get("kid", loader);
+        assertEquals(2, calls.get());
+    }
+
+
+    @Test
+    void everyWaiterSeesTheSameFailure() {
+        CompletableFuture<String> first = lookup.get("kid", loader);
+        CompletableFuture<String> second = lookup.get("kid", loader);
+        IllegalStateException failure = new IllegalStateException("unavailable");
+        pending.completeExceptionally(failure);
+
+        assertSame(failure, assertThrows(CompletionException.class, first::join).getCause());
+        assertSame(failure, assertThrows(CompletionException.class, second::join).getCause());
+        lookup.get("kid", loader);
+        assertEquals(2, calls.get());
+    }
+
+
+    @Test
+    void aLoaderThatThrowsFailsTheLookup() {
+        IllegalStateException failure = new IllegalStateException("broken");
+        CompletableFuture<String> result = lookup.get("kid", keyId -> {
+            calls.incrementAndGet();
+            throw failure;
+        });
+
+        assertSame(failure, assertThrows(CompletionException.class, result::join).getCause());
+        lookup.get("kid", loader);
+        assertEquals(2, calls.get());
+    }
+}
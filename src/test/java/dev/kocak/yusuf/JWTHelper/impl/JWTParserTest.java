@@ -0,0 +1,86 @@
+package dev.kocak.yusuf.JWTHelper.impl;
+
+import dev.kocak.yusuf.JWTHelper.model.IPayload;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+
+class JWTParserTest {
+
+    private static final String JSON = "{\"iss\":\"issuer\",\"sub\":\"subject\",\"role\":\"admin\","
+            + "\"tenant\":\"acme\",\"nested\":{\"a\":[1,2,3]}}";
+
+    private final JWTParser projected = JWTParser.getDefault().withProjection(Collections.singleton("role"));
+
+
+    @Test
+    void readsProjectedAndRegisteredClaims() {
+        IPayload payload = projected.parsePayload(JSON);
+
+        assertEquals("admin", payload.getClaim("role").asString());
+        assertEquals("issuer", payload.getIssuer());
+        assertEquals("subject", payload.getSubject());
+    }
+
+
+    @Test
+    void claimsOutsideTheProjectionAreStillReachable() {
+        IPayload payload = projected.parsePayload(JSON);
+
+        assertEquals("acme", payload.getClaim("tenant").asString());
+        assertTrue(payload.getClaim("missing").isMissing());
+        assertEquals(JWTParser.getDefault().parsePayload(JSON).getClaims().keySet(), payload.getClaims().keySet());
+    }
+
+
+    @Test
+    void keepsItsOwnCopyOfTheBuffer() {
+        byte[] buffer = ("  " + JSON).getBytes(StandardCharsets.UTF_8);
+        IPayload payload = projected.parsePayload(buffer, 2, buffer.length - 2);
+        Arrays.fill(buffer, (byte) ' ');
+
+        assertEquals("admin", payload.getClaim("role").asString());
+        assertEquals("acme", payload.getClaim("tenant").asString());
+    }
+
+
+    @Test
+    void projectingAgainStartsFromTheFullParser() {
+        JWTParser reprojected = projected.withProjection(Collections.singleton("tenant"));
+        IPayload payload = reprojected.parsePayload(JSON);
+
+        assertEquals("acme", payload.getClaim("tenant").asString());
+        assertEquals("admin", payload.getClaim("role").asString());
+    }
+
+
+    @Test
+    void serializedPayloadsReparseWithTheDefaultParser() throws Exception {
+        IPayload payload = projected.parsePayload(JSON);
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(payload);
+        }
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            IPayload read = (IPayload) in.readObject();
+            assertEquals("admin", read.getClaim("role").asString());
+            assertEquals("acme", read.getClaim("tenant").asString());
+        }
+    }
+
+
+    @Test
+    void rejectsNullClaimNames() {
+        assertThrows(IllegalArgumentException.class, () -> JWTParser.getDefault().withProjection(null));
+    }
+}
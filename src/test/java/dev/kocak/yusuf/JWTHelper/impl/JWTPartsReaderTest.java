@@ -0,0 +1,142 @@
+package dev.kocak.yusuf.JWTHelper.impl;
+
+import dev.kocak.yusuf.JWTHelper.exceptions.JWTDecodeException;
+import dev.kocak.yusuf.JWTHelper.model.IClaim;
+import dev.kocak.yusuf.JWTHelper.model.IHeader;
+import dev.kocak.yusuf.JWTHelper.model.IPayload;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+
+class JWTPartsReaderTest {
+
+    private final JWTParser jackson = new JWTParser();
+    private final JWTPartsReader reader = new JWTPartsReader();
+
+
+    @Test
+    void readsRegisteredClaimsLikeJackson() {
+        assertSamePayload("{\"iss\":\"issuer\",\"sub\":\"subject\",\"aud\":\"audience\",\"exp\":1700000000,"
+                + "\"nbf\":1600000000,\"iat\":1650000000,\"jti\":\"id\"}");
+        assertSamePayload("{\"aud\":[\"one\",\"two\"],\"exp\":1700000000.5}");
+        assertSamePayload("{\"aud\":[],\"iss\":null,\"sub\":null}");
+        assertSamePayload("{}");
+    }
+
+
+    @Test
+    void readsValuesLikeJackson() {
+        assertSamePayload("{\"int\":1,\"negative\":-12,\"long\":12345678901234,\"big\":123456789012345678901234,"
+                + "\"double\":1.5,\"exponent\":1e3,\"negativeExponent\":-2.5E-3,\"zero\":0,\"minusZero\":-0.0}");
+        assertSamePayload("{\"true\":true,\"false\":false,\"null\":null}");
+        assertSamePayload("{\"object\":{\"a\":[1,{\"b\":null}],\"c\":\"d\"},\"array\":[1,\"two\",3.0,[],{}]}");
+    }
+
+
+    @Test
+    void readsStringsLikeJackson() {
+        assertSamePayload("{\"escaped\":\"a\\\"b\\\\c\\/d\\b\\f\\n\\r\\t\","
+                + "\"unicode\":\"\\u00fc\\u20ac\\ud83d\\ude00\"}");
+        assertSamePayload("{\"utf8\":\"\u00fc\u20ac\ud83d\ude00\",\"\u00fcber\":\"key\",\"empty\":\"\"}");
+        assertSamePayload("{\"k\\u0041y\":\"escaped key\"}");
+    }
+
+
+    @Test
+    void readsWhitespaceAndDuplicatesLikeJackson() {
+        assertSamePayload(" {\n\t\"sub\" : \"subject\" ,\r\n \"list\" : [ 1 , 2 ] } ");
+        assertSamePayload("{\"sub\":\"first\",\"sub\":\"second\",\"n\":[1,{\"sub\":\"nested\"}]}");
+    }
+
+
+    @Test
+    void rejectsWhatJacksonRejects() {
+        String[] inputs = {"", "[]", "1", "\"sub\"", "{", "{\"sub\"}", "{\"sub\":}", "{\"sub\":\"x\",}",
+                "{sub:\"x\"}", "{\"sub\":'x'}", "{\"sub\":\"x\"", "{\"n\":01}", "{\"n\":1.}", "{\"n\":.5}",
+                "{\"s\":\"\\x\"}", "{\"s\":\"\\u12\"}", "{\"s\":\"a\nb\"}", "{\"a\":[1,]}", "{\"a\":tru}"};
+        for (String json : inputs) {
+            byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+            assertThrows(JWTDecodeException.class, () -> jackson.parsePayload(bytes, 0, bytes.length), json);
+            assertThrows(JWTDecodeException.class, () -> reader.parsePayload(bytes, 0, bytes.length), json);
+        }
+    }
+
+
+    @Test
+    void rejectsInvalidUtf8LikeJackson() {
+        byte[][] sequences = {{(byte) 0xC3}, {(byte) 0x80}, {(byte) 0xFF}, {(byte) 0xE2, (byte) 0x82},
+                {(byte) 0xC3, (byte) 0x28}};
+        for (byte[] sequence : sequences) {
+            byte[] prefix = "{\"sub\":\"x".getBytes(StandardCharsets.US_ASCII);
+            byte[] json = new byte[prefix.length + sequence.length + 2];
+            System.arraycopy(prefix, 0, json, 0, prefix.length);
+            System.arraycopy(sequence, 0, json, prefix.length, sequence.length);
+            json[json.length - 2] = '"';
+            json[json.length - 1] = '}';
+            assertThrows(JWTDecodeException.class, () -> jackson.parsePayload(json, 0, json.length));
+            assertThrows(JWTDecodeException.class, () -> reader.parsePayload(json, 0, json.length));
+        }
+    }
+
+
+    @Test
+    void readsHeadersLikeJackson() {
+        assertSameHeader("{\"alg\":\"HS256\",\"typ\":\"JWT\"}");
+        assertSameHeader("{\"alg\":\"RS256\",\"typ\":\"JWT\",\"cty\":\"JWT\",\"kid\":\"key\","
+                + "\"custom\":[1,{\"a\":2}]}");
+        assertSameHeader("{\"alg\":null,\"kid\":\"k\\u0065y\"}");
+        assertSameHeader("{}");
+    }
+
+
+    @Test
+    void readsWithinALargerArray() {
+        byte[] json = "xx{\"sub\":\"subject\"}yy".getBytes(StandardCharsets.US_ASCII);
+        assertEquals("subject", reader.parsePayload(json, 2, json.length - 4).getSubject());
+    }
+
+    private void assertSamePayload(String json) {
+        byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+        IPayload expected = jackson.parsePayload(bytes, 0, bytes.length);
+        IPayload actual = reader.parsePayload(bytes, 0, bytes.length);
+        assertEquals(expected.getIssuer(), actual.getIssuer(), json);
+        assertEquals(expected.getSubject(), actual.getSubject(), json);
+        assertEquals(expected.getAudience(), actual.getAudience(), json);
+        assertEquals(expected.getExpiresAt(), actual.getExpiresAt(), json);
+        assertEquals(expected.getNotBefore(), actual.getNotBefore(), json);
+        assertEquals(expected.getIssuedAt(), actual.getIssuedAt(), json);
+        assertEquals(expected.getId(), actual.getId(), json);
+        Map<String, IClaim> expectedClaims = expected.getClaims();
+        Map<String, IClaim> actualClaims = actual.getClaims();
+        assertEquals(expectedClaims.keySet(), actualClaims.keySet(), json);
+        for (String name : expectedClaims.keySet()) {
+            assertSameClaim(expectedClaims.get(name), actualClaims.get(name), json);
+            assertSameClaim(expected.getClaim(name), actual.getClaim(name), json);
+        }
+        assertSameClaim(expected.getClaim("missing"), actual.getClaim("missing"), json);
+    }
+
+    private void assertSameHeader(String json) {
+        byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+        IHeader expected = jackson.parseHeader(bytes, 0, bytes.length);
+        IHeader actual = reader.parseHeader(bytes, 0, bytes.length);
+        assertEquals(expected.getAlgorithm(), actual.getAlgorithm(), json);
+        assertEquals(expected.getType(), actual.getType(), json);
+        assertEquals(expected.getContentType(), actual.getContentType(), json);
+        assertEquals(expected.getKeyId(), actual.getKeyId(), json);
+        for (String name : new String[]{"alg", "kid", "custom", "missing"}) {
+            assertSameClaim(expected.getHeaderClaim(name), actual.getHeaderClaim(name), json);
+        }
+    }
+
+    private static void assertSameClaim(IClaim expected, IClaim actual, String json) {
+        assertEquals(expected.isNull(), actual.isNull(), json);
+        assertEquals(expected.isMissing(), actual.isMissing(), json);
+        assertEquals(expected.asString(), actual.asString(), json);
+        assertEquals(expected.as(Object.class), actual.as(Object.class), json);
+    }
+}